@@ -0,0 +1,47 @@
+package de.ddm.benchmarks;
+
+import akka.actor.ActorSystem;
+import akka.actor.ExtendedActorSystem;
+import akka.serialization.Serialization;
+import akka.serialization.Serialization$;
+import com.typesafe.config.ConfigFactory;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import scala.util.DynamicVariable;
+
+import java.util.concurrent.Callable;
+
+class BenchmarkSystems {
+
+	/**
+	 * Creates a local actor system with the application's serialization setup, but without remoting or clustering.
+	 */
+	static ExtendedActorSystem create() {
+		return create("");
+	}
+
+	/**
+	 * @param config additional settings in HOCON, e.g. the definition of a dispatcher
+	 */
+	static ExtendedActorSystem create(String config) {
+		return (ExtendedActorSystem) ActorSystem.create("benchmark", ConfigFactory.parseString(config + "\n" +
+				"akka.actor.provider = local\n" +
+				"akka.loglevel = WARNING\n" +
+				"akka.serialization.jackson.allowed-class-prefix = [\"de.ddm\"]")
+				.withFallback(SystemConfigurationSingleton.get().toAkkaTestConfig()));
+	}
+
+	/**
+	 * Runs the serialization with the transport information that remoting sets for every message, without which the
+	 * serializers can neither write nor resolve actor refs.
+	 */
+	static <T> T withTransportInformation(ExtendedActorSystem system, Callable<T> serialization) throws Exception {
+		DynamicVariable<Serialization.Information> information = Serialization$.MODULE$.currentTransportInformation();
+		Serialization.Information previous = information.value();
+		information.value_$eq(system.provider().serializationInformation());
+		try {
+			return serialization.call();
+		} finally {
+			information.value_$eq(previous);
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package de.ddm.benchmarks;
+
+import akka.actor.ExtendedActorSystem;
+import akka.util.ByteString;
+import de.ddm.actors.patterns.LargeMessageProxy;
+import de.ddm.serialization.BinaryPayloadSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-payload cost of the LargeMessageProxy's chunk path without the network: slicing the payload into chunks of
+ * MAX_MESSAGE_SIZE, serializing and deserializing each BytesMessage, and reassembling the chunks in a receive buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2048m", "-Xmx2048m"})
+public class ChunkingBenchmark {
+
+	@Param({"10000", "100000", "1000000"})
+	public int maxMessageSize;
+
+	@Param({"10"})
+	public int payloadSizeInMB;
+
+	private ExtendedActorSystem system;
+	private BinaryPayloadSerializer serializer;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() {
+		this.system = BenchmarkSystems.create();
+		this.serializer = new BinaryPayloadSerializer(this.system);
+
+		this.payload = new byte[this.payloadSizeInMB * 1024 * 1024];
+		new Random(4711).nextBytes(this.payload);
+
+		LargeMessageProxy.MAX_MESSAGE_SIZE = this.maxMessageSize;
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.system.terminate();
+	}
+
+	@Benchmark
+	public byte[] chunkAndReassemble() throws Exception {
+		ByteString bytes = ByteString.fromArrayUnsafe(this.payload);
+		byte[] receiveBuffer = new byte[this.payload.length];
+
+		for (int offset = 0; offset < this.payload.length; offset += LargeMessageProxy.MAX_MESSAGE_SIZE) {
+			ByteString chunk = bytes.slice(offset, Math.min(offset + LargeMessageProxy.MAX_MESSAGE_SIZE, this.payload.length));
+
+			LargeMessageProxy.BytesMessage sent = new LargeMessageProxy.BytesMessage(chunk, 0, 0, false);
+			byte[] wire = this.serializer.toBinary(sent);
+			LargeMessageProxy.BytesMessage message = (LargeMessageProxy.BytesMessage) this.serializer.fromBinary(wire, this.serializer.manifest(sent));
+
+			message.getBytes().copyToBuffer(ByteBuffer.wrap(receiveBuffer, offset, message.getBytes().length()));
+		}
+		return receiveBuffer;
+	}
+}
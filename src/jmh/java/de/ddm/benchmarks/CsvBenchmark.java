@@ -0,0 +1,106 @@
+package de.ddm.benchmarks;
+
+import akka.actor.ExtendedActorSystem;
+import com.opencsv.CSVReader;
+import de.ddm.configuration.InputConfiguration;
+import de.ddm.io.CsvRange;
+import de.ddm.io.MappedCsvReader;
+import de.ddm.io.ParallelCsvReader;
+import de.ddm.singletons.DomainConfigurationSingleton;
+import de.ddm.singletons.InputConfigurationSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses all input files (by default the unzipped data/TPCH folder) and counts their values, once with OpenCSV and once
+ * with the MappedCsvReader in batches of the input reader's batch size, sequentially and in parallel byte ranges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2048m", "-Xmx2048m"})
+public class CsvBenchmark {
+
+	private InputConfiguration inputConfiguration;
+	private File[] inputFiles;
+
+	private ExtendedActorSystem system;
+	private Executor inputReaderDispatcher;
+
+	@Setup
+	public void setUp() {
+		this.inputConfiguration = InputConfigurationSingleton.get();
+		this.inputFiles = this.inputConfiguration.getInputFiles();
+
+		if (this.inputFiles == null || this.inputFiles.length == 0)
+			throw new IllegalStateException("No input files found in " + this.inputConfiguration.getInputPath() + "; unzip data/TPCH.zip first.");
+
+		this.system = BenchmarkSystems.create();
+		this.inputReaderDispatcher = this.system.dispatchers().lookup("akka.input-reader-dispatcher");
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.system.terminate();
+	}
+
+	@Benchmark
+	public long openCsv() throws Exception {
+		long values = 0;
+		for (File inputFile : this.inputFiles) {
+			try (CSVReader reader = this.inputConfiguration.createCSVReader(inputFile)) {
+				String[] line;
+				while ((line = reader.readNext()) != null)
+					values += line.length;
+			}
+		}
+		return values;
+	}
+
+	@Benchmark
+	public long mappedCsvReader() throws Exception {
+		int batchSize = DomainConfigurationSingleton.get().getInputReaderBatchSize();
+		long values = 0;
+		for (File inputFile : this.inputFiles) {
+			try (MappedCsvReader reader = this.inputConfiguration.createMappedCsvReader(inputFile)) {
+				List<String[]> batch;
+				while (!(batch = reader.readBatch(batchSize)).isEmpty())
+					for (String[] line : batch)
+						values += line.length;
+			}
+		}
+		return values;
+	}
+
+	@Benchmark
+	public long parallelCsvReader() throws Exception {
+		int batchSize = DomainConfigurationSingleton.get().getInputReaderBatchSize();
+		LongAdder values = new LongAdder();
+		for (File inputFile : this.inputFiles) {
+			ParallelCsvReader reader = this.inputConfiguration.createParallelCsvReader(inputFile, this.inputReaderDispatcher);
+			List<CsvRange> ranges = reader.split(this.inputConfiguration.getInputReaderParallelism());
+			reader.read(ranges, batchSize, batch -> {
+				for (String[] line : batch.getRecords())
+					values.add(line.length);
+			}).join();
+		}
+		return values.sum();
+	}
+}
@@ -0,0 +1,127 @@
+package de.ddm.benchmarks;
+
+import akka.actor.ExtendedActorSystem;
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.Behavior;
+import akka.actor.typed.javadsl.Adapter;
+import akka.actor.typed.javadsl.Behaviors;
+import de.ddm.configuration.DispatcherType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The latency of a coordinating actor, like the master, while busy actors, like LargeMessageProxies that serialize
+ * large payloads, flood the same dispatcher with CPU-heavy messages: every invocation floods the busy actors and then
+ * measures a sequence of round trips to the coordinator. Compares the executors that -mdt, -wdt and -pdt offer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2048m", "-Xmx2048m"})
+public class DispatcherBenchmark {
+
+	private static final String DISPATCHER = "benchmark-dispatcher";
+
+	@Param({"FORK_JOIN", "THREAD_POOL", "PINNED"})
+	public DispatcherType dispatcherType;
+
+	@Param({"4"})
+	public int poolSize;
+
+	@Param({"1", "100"})
+	public int throughput;
+
+	@Param({"8"})
+	public int busyActors;
+
+	@Param({"50"})
+	public int messagesPerBusyActor;
+
+	@Param({"100000"})
+	public int tokensPerMessage;
+
+	@Param({"100"})
+	public int roundTrips;
+
+	private static class Work {
+		private final long tokens;
+		private final CountDownLatch done;
+
+		private Work(long tokens, CountDownLatch done) {
+			this.tokens = tokens;
+			this.done = done;
+		}
+	}
+
+	private ExtendedActorSystem system;
+	private final List<ActorRef<Work>> busy = new ArrayList<>();
+	private ActorRef<CountDownLatch> coordinator;
+	private CountDownLatch pendingWork;
+
+	@Setup
+	public void setUp() {
+		this.system = BenchmarkSystems.create(this.dispatcherType.toConfig(DISPATCHER, this.poolSize, this.throughput));
+
+		Behavior<Work> busyBehavior = Behaviors.receive(Work.class)
+				.onMessage(Work.class, work -> {
+					Blackhole.consumeCPU(work.tokens);
+					work.done.countDown();
+					return Behaviors.same();
+				})
+				.build();
+		for (int i = 0; i < this.busyActors; i++)
+			this.busy.add(Adapter.spawn(this.system, busyBehavior, "busy" + i, this.dispatcherType.toSelector(DISPATCHER)));
+
+		Behavior<CountDownLatch> coordinatorBehavior = Behaviors.receive(CountDownLatch.class)
+				.onMessage(CountDownLatch.class, latch -> {
+					latch.countDown();
+					return Behaviors.same();
+				})
+				.build();
+		this.coordinator = Adapter.spawn(this.system, coordinatorBehavior, "coordinator", this.dispatcherType.toSelector(DISPATCHER));
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.system.terminate();
+	}
+
+	@TearDown(Level.Invocation)
+	public void drain() throws InterruptedException {
+		// The work of one invocation must not slow down the next one
+		this.pendingWork.await();
+	}
+
+	@Benchmark
+	public void coordinationUnderLoad() throws InterruptedException {
+		this.pendingWork = new CountDownLatch(this.busyActors * this.messagesPerBusyActor);
+		for (ActorRef<Work> actor : this.busy)
+			for (int i = 0; i < this.messagesPerBusyActor; i++)
+				actor.tell(new Work(this.tokensPerMessage, this.pendingWork));
+
+		for (int i = 0; i < this.roundTrips; i++) {
+			CountDownLatch answered = new CountDownLatch(1);
+			this.coordinator.tell(answered);
+			answered.await();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package de.ddm.benchmarks;
+
+import de.ddm.performance.PayloadMode;
+import de.ddm.performance.PayloadProvider;
+import de.ddm.performance.Payloads;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of generating the performance test's payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2048m", "-Xmx2048m"})
+public class PayloadBenchmark {
+
+	@Param({"10"})
+	public int payloadSizeInMB;
+
+	@Param({"1.0", "0.5", "0.0"})
+	public double entropy;
+
+	private final Random random = new Random(4711);
+
+	private PayloadProvider derivingPayloadProvider;
+
+	@Setup
+	public void setUp() {
+		this.derivingPayloadProvider = new PayloadProvider(new Random(4711), this.payloadSizeInMB * 1024 * 1024, 0, PayloadMode.RANDOM, this.entropy);
+	}
+
+	@Benchmark
+	public byte[] randomNextBytes() {
+		byte[] data = new byte[this.payloadSizeInMB * 1024 * 1024];
+		this.random.nextBytes(data);
+		return data;
+	}
+
+	@Benchmark
+	public byte[] generate() {
+		return Payloads.generate(this.random, this.payloadSizeInMB * 1024 * 1024, this.entropy);
+	}
+
+	@Benchmark
+	public byte[] deriveFromSeedBlock() {
+		return this.derivingPayloadProvider.next();
+	}
+}
@@ -0,0 +1,99 @@
+package de.ddm.benchmarks;
+
+import akka.actor.ExtendedActorSystem;
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.javadsl.Adapter;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.serialization.JavaSerializer;
+import akka.serialization.Serializer;
+import akka.serialization.SerializerWithStringManifest;
+import akka.serialization.jackson.JacksonCborSerializer;
+import de.ddm.actors.Master;
+import de.ddm.actors.Worker;
+import de.ddm.serialization.BinaryPayloadSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips of the performance test's data messages through the serializers that can be bound to them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2048m", "-Xmx2048m"})
+public class SerializationBenchmark {
+
+	@Param({"jackson-cbor", "java", "binary-payload"})
+	public String serializerName;
+
+	@Param({"1", "10"})
+	public int messageSizeInMB;
+
+	private ExtendedActorSystem system;
+	private Serializer serializer;
+	private Master.DataMessageDirect message;
+	private String manifest;
+
+	@Setup
+	public void setUp() {
+		// The java serializer is disabled in the application, but it is measured here as the baseline of the others
+		this.system = BenchmarkSystems.create("akka.actor.allow-java-serialization = on\nakka.actor.warn-about-java-serializer-usage = off");
+
+		switch (this.serializerName) {
+			case "jackson-cbor":
+				this.serializer = new JacksonCborSerializer(this.system, "jackson-cbor");
+				break;
+			case "java":
+				this.serializer = new JavaSerializer(this.system);
+				break;
+			case "binary-payload":
+				this.serializer = new BinaryPayloadSerializer(this.system);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown serializer " + this.serializerName);
+		}
+
+		byte[] data = new byte[this.messageSizeInMB * 1024 * 1024];
+		new Random(4711).nextBytes(data);
+		ActorRef<Worker.Message> worker = Adapter.spawnAnonymous(this.system, Behaviors.<Worker.Message>empty());
+
+		this.message = new Master.DataMessageDirect(worker, data);
+		this.manifest = this.serializer instanceof SerializerWithStringManifest ? ((SerializerWithStringManifest) this.serializer).manifest(this.message) : "";
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.system.terminate();
+	}
+
+	// The message holds an actor ref, which the serializers can only write and resolve with transport information
+	@Benchmark
+	public byte[] serialize() throws Exception {
+		return BenchmarkSystems.withTransportInformation(this.system, () -> this.serializer.toBinary(this.message));
+	}
+
+	@Benchmark
+	public Object roundTrip() throws Exception {
+		return BenchmarkSystems.withTransportInformation(this.system, () -> {
+			byte[] bytes = this.serializer.toBinary(this.message);
+			if (this.serializer instanceof SerializerWithStringManifest)
+				return ((SerializerWithStringManifest) this.serializer).fromBinary(bytes, this.manifest);
+			return this.serializer.fromBinary(bytes);
+		});
+	}
+}
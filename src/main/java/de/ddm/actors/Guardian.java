@@ -12,6 +12,7 @@ import akka.actor.typed.receptionist.ServiceKey;
 import de.ddm.actors.patterns.Reaper;
 import de.ddm.configuration.SystemConfiguration;
 import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.MetricsRegistrySingleton;
 import de.ddm.singletons.SystemConfigurationSingleton;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -70,9 +71,17 @@ public class Guardian extends AbstractBehavior<Guardian.Message> {
 		this.timers = timers;
 
 		this.reaper = context.spawn(Reaper.create(), Reaper.DEFAULT_NAME);
-		this.master = this.isMaster() ? context.spawn(Master.create(), Master.DEFAULT_NAME) : null;
-		//this.worker = context.spawn(Worker.create(), Worker.DEFAULT_NAME);
-		this.worker = !this.isMaster() ? context.spawn(Worker.create(), Worker.DEFAULT_NAME) : null;
+		this.master = this.isMaster() ? context.spawn(Master.create(), Master.DEFAULT_NAME, SystemConfigurationSingleton.get().getMasterDispatcherSelector()) : null;
+		this.workers = SystemConfigurationSingleton.get().getNumWorkers() > 0 ? context.spawn(WorkerGroup.create(SystemConfigurationSingleton.get().getNumWorkers(),
+				SystemConfigurationSingleton.get().getSharedLargeMessageProxies()), WorkerGroup.DEFAULT_NAME) : null;
+
+		if (SystemConfigurationSingleton.get().isMetrics()) {
+			MetricsRegistrySingleton.get().registerJvmMetrics();
+			// Neither is watched by the reaper, so that they do not keep the system alive
+			if (this.isMaster())
+				context.spawn(MetricsCollector.create(), MetricsCollector.DEFAULT_NAME);
+			context.spawn(MetricsReporter.create(), MetricsReporter.DEFAULT_NAME);
+		}
 
 		context.getSystem().receptionist().tell(Receptionist.register(guardianService, context.getSelf()));
 
@@ -94,7 +103,7 @@ public class Guardian extends AbstractBehavior<Guardian.Message> {
 
 	private final ActorRef<Reaper.Message> reaper;
 	private ActorRef<Master.Message> master;
-	private ActorRef<Worker.Message> worker;
+	private ActorRef<WorkerGroup.Message> workers;
 
 	////////////////////
 	// Actor Behavior //
@@ -136,9 +145,9 @@ public class Guardian extends AbstractBehavior<Guardian.Message> {
 	}
 
 	private void shutdown() {
-		if (this.worker != null) {
-			this.worker.tell(new Worker.ShutdownMessage());
-			this.worker = null;
+		if (this.workers != null) {
+			this.workers.tell(new WorkerGroup.ShutdownMessage());
+			this.workers = null;
 		}
 		if (this.master != null) {
 			this.master.tell(new Master.ShutdownMessage());
@@ -0,0 +1,248 @@
+package de.ddm.actors;
+
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.Behavior;
+import akka.actor.typed.javadsl.AbstractBehavior;
+import akka.actor.typed.javadsl.ActorContext;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.actor.typed.javadsl.Receive;
+import de.ddm.actors.patterns.LargeMessageProxy;
+import de.ddm.actors.patterns.Reaper;
+import de.ddm.configuration.InputConfiguration;
+import de.ddm.io.CsvRange;
+import de.ddm.io.MappedCsvReader;
+import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.DomainConfigurationSingleton;
+import de.ddm.singletons.InputConfigurationSingleton;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Reads one input file and streams its records in batches to a requester. The requester controls the flow: it requests
+ * a number of batches and the reader sends at most that many, so that unconsumed batches never pile up in its heap.
+ * Large files are split into byte ranges that are parsed in parallel on the reader's dispatcher, as long as there is
+ * enough demand. An empty batch marks the end of the file; a reader that fails to split or read its file stops instead,
+ * which the requester notices by watching it.
+ */
+public class InputReader extends AbstractBehavior<InputReader.Message> {
+
+	////////////////////
+	// Actor Messages //
+	////////////////////
+
+	public interface Message extends AkkaSerializable {
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ReadHeaderMessage implements Message {
+		private static final long serialVersionUID = 1729062814525657711L;
+		ActorRef<Master.Message> replyTo;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ReadBatchMessage implements Message {
+		private static final long serialVersionUID = -7915854043914218553L;
+		ActorRef<Master.Message> replyTo;
+		ActorRef<LargeMessageProxy.Message> replyToLargeMessageProxy; // Only used if the requester lives in another actor system
+		int numberOfBatches;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static class SplitMessage implements Message {
+		private static final long serialVersionUID = -6120864593383367016L;
+		private List<CsvRange> ranges;
+		private Throwable failure;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static class RangeReadMessage implements Message {
+		private static final long serialVersionUID = 3358227734040180946L;
+		private int rangeIndex;
+		private List<String[]> records;
+		private Throwable failure;
+	}
+
+	////////////////////////
+	// Actor Construction //
+	////////////////////////
+
+	public static final String DEFAULT_NAME = "inputReader";
+
+	public static Behavior<Message> create(final int id, final File inputFile) {
+		return Behaviors.setup(context -> new InputReader(context, id, inputFile));
+	}
+
+	private InputReader(ActorContext<Message> context, final int id, final File inputFile) throws IOException {
+		super(context);
+		Reaper.watchWithDefaultReaper(this.getContext().getSelf());
+
+		InputConfiguration inputConfiguration = InputConfigurationSingleton.get();
+
+		this.id = id;
+		this.inputFile = inputFile;
+		this.header = inputConfiguration.getHeader(inputFile);
+		this.executor = context.getExecutionContext();
+		this.largeMessageProxy = this.getContext().spawn(LargeMessageProxy.create(this.getContext().getSelf().unsafeUpcast()), LargeMessageProxy.DEFAULT_NAME,
+				SystemConfigurationSingleton.get().getProxyDispatcherSelector());
+
+		// Splitting scans the file for record boundaries, so it runs on the executor like the range reads; batch requests
+		// that arrive in the meantime are only counted as demand
+		CompletableFuture<List<CsvRange>> ranges = CompletableFuture.supplyAsync(() -> {
+			try {
+				return inputConfiguration.createParallelCsvReader(inputFile, this.executor).split(inputConfiguration.getInputReaderParallelism());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}, this.executor);
+		this.getContext().pipeToSelf(ranges, SplitMessage::new);
+	}
+
+	/////////////////
+	// Actor State //
+	/////////////////
+
+	private final int id;
+	private final File inputFile;
+	private final String[] header;
+	private final int batchSize = DomainConfigurationSingleton.get().getInputReaderBatchSize();
+
+	private final Executor executor;
+	private final ActorRef<LargeMessageProxy.Message> largeMessageProxy;
+
+	private MappedCsvReader[] readers; // null until the file is split; an entry is null once its range is exhausted
+	private boolean[] busy;
+	private int[] batchIndexes;
+	private int openRanges;
+	private int nextRange = 0;
+
+	private ActorRef<Master.Message> replyTo;
+	private ActorRef<LargeMessageProxy.Message> replyToLargeMessageProxy;
+	private int demand = 0;
+	private int inFlight = 0;
+
+	////////////////////
+	// Actor Behavior //
+	////////////////////
+
+	@Override
+	public Receive<Message> createReceive() {
+		return newReceiveBuilder()
+				.onMessage(ReadHeaderMessage.class, this::handle)
+				.onMessage(ReadBatchMessage.class, this::handle)
+				.onMessage(SplitMessage.class, this::handle)
+				.onMessage(RangeReadMessage.class, this::handle)
+				.build();
+	}
+
+	private Behavior<Message> handle(ReadHeaderMessage message) {
+		message.getReplyTo().tell(new Master.HeaderMessage(this.id, this.header));
+		return this;
+	}
+
+	private Behavior<Message> handle(ReadBatchMessage message) {
+		this.replyTo = message.getReplyTo();
+		this.replyToLargeMessageProxy = message.getReplyToLargeMessageProxy();
+		this.demand += message.getNumberOfBatches();
+		this.read();
+		return this;
+	}
+
+	private Behavior<Message> handle(SplitMessage message) throws IOException {
+		if (message.getFailure() != null) {
+			this.getContext().getLog().error("Splitting {} into ranges failed!", this.inputFile.getName(), message.getFailure());
+			return Behaviors.stopped();
+		}
+
+		InputConfiguration inputConfiguration = InputConfigurationSingleton.get();
+		List<CsvRange> ranges = message.getRanges();
+		this.readers = new MappedCsvReader[ranges.size()];
+		for (CsvRange range : ranges) {
+			MappedCsvReader reader = inputConfiguration.createMappedCsvReader(this.inputFile, range.getStart(), range.getEnd());
+			if (range.getStart() == 0 && inputConfiguration.isFileHasHeader())
+				reader.readNext();
+			this.readers[range.getIndex()] = reader;
+		}
+		this.busy = new boolean[ranges.size()];
+		this.batchIndexes = new int[ranges.size()];
+		this.openRanges = ranges.size();
+
+		this.read();
+		return this;
+	}
+
+	private void read() {
+		if (this.readers == null)
+			return;
+
+		// Every range parses at most one batch at a time, because its reader is not thread-safe
+		while (this.inFlight < this.demand && this.inFlight < this.openRanges) {
+			while (this.readers[this.nextRange] == null || this.busy[this.nextRange])
+				this.nextRange = (this.nextRange + 1) % this.readers.length;
+
+			int rangeIndex = this.nextRange;
+			MappedCsvReader reader = this.readers[rangeIndex];
+			this.busy[rangeIndex] = true;
+			this.inFlight++;
+			this.nextRange = (this.nextRange + 1) % this.readers.length;
+
+			CompletableFuture<List<String[]>> batch = CompletableFuture.supplyAsync(() -> {
+				try {
+					return reader.readBatch(this.batchSize);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, this.executor);
+			this.getContext().pipeToSelf(batch, (records, failure) -> new RangeReadMessage(rangeIndex, records, failure));
+		}
+	}
+
+	private Behavior<Message> handle(RangeReadMessage message) throws IOException {
+		int rangeIndex = message.getRangeIndex();
+		this.busy[rangeIndex] = false;
+		this.inFlight--;
+
+		// A skipped range would silently truncate the relation, so the reader fails like on a failed split
+		if (message.getFailure() != null) {
+			this.getContext().getLog().error("Reading range {} of {} failed!", rangeIndex, this.inputFile.getName(), message.getFailure());
+			return Behaviors.stopped();
+		}
+
+		if (message.getRecords().isEmpty()) {
+			this.readers[rangeIndex].close();
+			this.readers[rangeIndex] = null;
+			this.openRanges--;
+
+			if (this.openRanges == 0)
+				this.send(new Master.BatchMessage(this.id, rangeIndex, this.batchIndexes[rangeIndex], Collections.emptyList()));
+		} else {
+			this.demand--;
+			this.send(new Master.BatchMessage(this.id, rangeIndex, this.batchIndexes[rangeIndex]++, message.getRecords()));
+		}
+
+		this.read();
+		return this;
+	}
+
+	private void send(Master.BatchMessage message) {
+		if (this.replyToLargeMessageProxy != null && this.replyTo.path().address().hasGlobalScope())
+			this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(message, this.replyToLargeMessageProxy));
+		else
+			this.replyTo.tell(message);
+	}
+}
@@ -2,23 +2,65 @@ package de.ddm.actors;
 
 import akka.actor.typed.ActorRef;
 import akka.actor.typed.Behavior;
+import akka.actor.typed.Terminated;
 import akka.actor.typed.javadsl.AbstractBehavior;
 import akka.actor.typed.javadsl.ActorContext;
 import akka.actor.typed.javadsl.Behaviors;
 import akka.actor.typed.javadsl.Receive;
+import akka.actor.typed.javadsl.TimerScheduler;
 import akka.actor.typed.receptionist.Receptionist;
 import akka.actor.typed.receptionist.ServiceKey;
 import de.ddm.actors.patterns.LargeMessageProxy;
 import de.ddm.actors.patterns.Reaper;
+import de.ddm.metrics.LoadBalancer;
+import de.ddm.metrics.MetricsRegistry;
+import de.ddm.metrics.NodeLoad;
+import de.ddm.performance.LatencyHistogram;
+import de.ddm.performance.MessageWindow;
+import de.ddm.performance.PayloadProvider;
+import de.ddm.performance.PerformanceReport;
+import de.ddm.performance.ThroughputMeter;
+import de.ddm.performance.TrafficPattern;
 import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.DomainConfigurationSingleton;
+import de.ddm.singletons.InputConfigurationSingleton;
+import de.ddm.singletons.MetricsRegistrySingleton;
+import de.ddm.singletons.PayloadPoolSingleton;
 import de.ddm.singletons.SystemConfigurationSingleton;
+import de.ddm.structures.AprioriCandidateGenerator;
+import de.ddm.structures.CandidatePruner;
+import de.ddm.structures.ColumnReplicas;
+import de.ddm.structures.ColumnStore;
+import de.ddm.structures.DiscoveryStrategy;
+import de.ddm.structures.EncodedColumn;
+import de.ddm.structures.EncodedInclusionDependency;
+import de.ddm.structures.EncodedRelation;
+import de.ddm.structures.InclusionDependency;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import lombok.AllArgsConstructor;
+import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class Master extends AbstractBehavior<Master.Message> {
 
@@ -48,6 +90,7 @@ public class Master extends AbstractBehavior<Master.Message> {
 	@AllArgsConstructor
 	public static class DataMessageWithLargeMessageProxy implements LargeMessageProxy.LargeMessage, Message {
 		private static final long serialVersionUID = -4667745204456518160L;
+		ActorRef<Worker.Message> worker; // The receiver of the answer, because several workers may share one proxy
 		ActorRef<LargeMessageProxy.Message> workerLargeMessageProxy;
 		byte[] data;
 	}
@@ -61,6 +104,112 @@ public class Master extends AbstractBehavior<Master.Message> {
 		byte[] data;
 	}
 
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class StreamDataMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = 2950318460127365917L;
+		ActorRef<Worker.Message> worker; // The sender, which expects an acknowledgement
+		long sequence;
+		byte[] data;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class AckMessage implements Message {
+		private static final long serialVersionUID = -6270935813824601658L;
+		ActorRef<Worker.Message> worker;
+		long sequence;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PerformanceReportMessage implements Message {
+		private static final long serialVersionUID = -2779471583003625310L;
+		ActorRef<Worker.Message> worker;
+		int numberOfMessages;
+		long elapsedTimeInMillis;
+		long payloadGenerationTimeInMillis;
+		LatencyHistogram latencies; // Round trip (or acknowledgement) latencies in microseconds
+		double[] throughputsInMBps;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class HeaderMessage implements Message {
+		private static final long serialVersionUID = -5322425954432915838L;
+		int id;
+		String[] header;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class BatchMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = 4591192372652326188L;
+		int id;
+		int rangeIndex;
+		int batchIndex;
+		List<String[]> batch; // An empty batch marks the end of the input file
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ResultMessage implements Message {
+		private static final long serialVersionUID = -7642425159675583598L;
+		ActorRef<Worker.Message> worker;
+		int taskId;
+		int dependentColumn;
+		int[] referencedColumns; // The candidates of the task that include the dependent column
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PartitionResultMessage implements Message {
+		private static final long serialVersionUID = 2405372186046186375L;
+		ActorRef<Worker.Message> worker;
+		int taskId;
+		int[] dependentColumns;
+		long[][] referencedColumns; // For every dependent column, the bits of the columns that include it on the partition
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class WorkRequestMessage implements Message {
+		private static final long serialVersionUID = 8713205570418127093L;
+		ActorRef<Worker.Message> worker;
+		int numberOfTasks; // The number of tasks that the worker can take on now
+		int numberOfCandidates; // The number of candidates of the worker's last task, if any
+		long processingTimeInNanos; // The time that the worker spent on its last task, if any
+		NodeLoad load; // The load of the worker's node at the time of the request
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class NaryResultMessage implements Message {
+		private static final long serialVersionUID = -1289431150462853795L;
+		ActorRef<Worker.Message> worker;
+		int taskId;
+		int[] validCandidates; // The positions of the task's candidates that are valid inclusion dependencies
+	}
+
+	@NoArgsConstructor
+	private static class DeadlineCheckMessage implements Message {
+		private static final long serialVersionUID = -2837150276190465313L;
+	}
+
+	@NoArgsConstructor
+	private static class WorkerlessTimeoutMessage implements Message {
+		private static final long serialVersionUID = 4417236590235531784L;
+	}
+
 	@NoArgsConstructor
 	public static class ShutdownMessage implements Message {
 		private static final long serialVersionUID = 7516129288777469221L;
@@ -73,17 +222,27 @@ public class Master extends AbstractBehavior<Master.Message> {
 	public static final String DEFAULT_NAME = "master";
 
 	public static Behavior<Message> create() {
-		return Behaviors.setup(Master::new);
+		return Behaviors.setup(
+				context -> Behaviors.withTimers(timers -> new Master(context, timers)));
 	}
 
 	public static final ServiceKey<Master.Message> masterService = ServiceKey.create(Master.Message.class, DEFAULT_NAME + "Service");
 
-	private Master(ActorContext<Message> context) {
+	private Master(ActorContext<Message> context, TimerScheduler<Message> timers) {
 		super(context);
+		this.timers = timers;
 		Reaper.watchWithDefaultReaper(this.getContext().getSelf());
 
 		this.workers = new ArrayList<>();
-		this.largeMessageProxy = this.getContext().spawn(LargeMessageProxy.create(this.getContext().getSelf().unsafeUpcast()), LargeMessageProxy.DEFAULT_NAME);
+		this.inputFiles = SystemConfigurationSingleton.get().isPerformanceTest() ? new File[0] : InputConfigurationSingleton.get().getInputFiles();
+		this.inputReaders = new ArrayList<>(this.inputFiles.length);
+		this.headerLines = new String[this.inputFiles.length][];
+		this.columnStore = new ColumnStore(this.inputFiles.length, SystemConfigurationSingleton.get().getDictionaryMode());
+		this.inputRows = new long[this.inputFiles.length];
+		this.inputStartTimes = new long[this.inputFiles.length];
+		this.largeMessageProxy = this.getContext().spawn(LargeMessageProxy.create(this.getContext().getSelf().unsafeUpcast()), LargeMessageProxy.DEFAULT_NAME,
+				SystemConfigurationSingleton.get().getProxyDispatcherSelector());
+		this.resultCollector = SystemConfigurationSingleton.get().isPerformanceTest() ? null : this.getContext().spawn(ResultCollector.create(), ResultCollector.DEFAULT_NAME);
 		context.getSystem().receptionist().tell(Receptionist.register(masterService, context.getSelf()));
 	}
 
@@ -91,11 +250,119 @@ public class Master extends AbstractBehavior<Master.Message> {
 	// Actor State //
 	/////////////////
 
+	private final TimerScheduler<Message> timers;
+
 	private final ActorRef<LargeMessageProxy.Message> largeMessageProxy;
 
 	private final List<ActorRef<Worker.Message>> workers;
 
-	private final Random random = new Random(4711);
+	private final File[] inputFiles;
+	private final List<ActorRef<InputReader.Message>> inputReaders;
+	private final String[][] headerLines;
+	private final ColumnStore columnStore;
+	private final long[] inputRows;
+	private final long[] inputStartTimes;
+	private int inputFilesRead = 0;
+
+	private final ActorRef<ResultCollector.Message> resultCollector;
+
+	private final Map<ActorRef<Worker.Message>, ActorRef<LargeMessageProxy.Message>> workerLargeMessageProxies = new HashMap<>();
+	private final ColumnReplicas<ActorRef<Worker.Message>> workerColumns = new ColumnReplicas<>(); // The columns that every worker holds already
+	private final Map<ActorRef<Worker.Message>, Map<Integer, DiscoveryTask>> workerTasks = new HashMap<>();
+	private final Map<ActorRef<Worker.Message>, WorkerStatistics> workerStatistics = new HashMap<>();
+	private final Deque<DiscoveryTask> pendingTasks = new ArrayDeque<>();
+
+	private final int discoveryTasksPerWorker = DomainConfigurationSingleton.get().getDiscoveryTasksPerWorker();
+	private final int discoveryPartitionSize = DomainConfigurationSingleton.get().getDiscoveryPartitionSize();
+	private final int discoveryMaxTaskSize = DomainConfigurationSingleton.get().getDiscoveryMaxTaskSize();
+	private final long discoveryTaskTimeoutInNanos = TimeUnit.SECONDS.toNanos(DomainConfigurationSingleton.get().getDiscoveryTaskTimeoutInSeconds());
+	private final Duration discoveryWorkerlessTimeout = Duration.ofSeconds(DomainConfigurationSingleton.get().getDiscoveryWorkerlessTimeoutInSeconds());
+	private final long discoveryTargetTaskTimeInNanos = TimeUnit.MILLISECONDS.toNanos(DomainConfigurationSingleton.get().getDiscoveryTargetTaskTimeInMillis());
+
+	private final LoadBalancer loadBalancer = new LoadBalancer(SystemConfigurationSingleton.get().isLoadBalancing(),
+			DomainConfigurationSingleton.get().getLoadBalancingMinHeapHeadroom(), Math.max(1, SystemConfigurationSingleton.get().getLargeMessageProxyInFlightBudgetInMB()) * 1024L * 1024L);
+	private final MetricsRegistry.Counter heldBackDecisions = MetricsRegistrySingleton.get().counter("ddm_load_balancer_decisions_total", "decision=\"hold_back\"");
+	private final MetricsRegistry.Counter reorderDecisions = MetricsRegistrySingleton.get().counter("ddm_load_balancer_decisions_total", "decision=\"reorder\"");
+
+	private boolean discoveryStarted = false;
+	private long discoveryStartTime;
+	private int numberOfTasks = 0;
+	private int numberOfCompletedTasks = 0;
+	private int numberOfInclusionDependencies = 0;
+
+	// All columns of all relations, numbered consecutively
+	private int[] columnRelations;
+	private int[] columnIndexes;
+	private int[][] columnValues;
+
+	// The number of hash partitions of the distinct values for the PARTITIONED strategy and the candidates that survived all partitions so far
+	private int numberOfPartitions;
+	private BitSet[] partitionCandidates;
+
+	private CandidatePruner candidatePruner;
+
+	// The n-ary discovery of the hard mode: the valid unary dependencies seed one group per pair of relations
+	private final boolean hardMode = SystemConfigurationSingleton.get().isHardMode();
+	private final List<EncodedInclusionDependency> unaryInclusionDependencies = new ArrayList<>();
+	private final ColumnReplicas<ActorRef<Worker.Message>> workerRows = new ColumnReplicas<>(); // The columns that every worker holds row by row already
+	private NaryGroup[][] naryGroups;
+	private boolean naryDiscoveryStarted = false;
+	private int maxArity = 0;
+
+	@Data
+	@AllArgsConstructor
+	private static class DiscoveryTask {
+		private int id;
+		private int dependentColumn; // Only for the PAIRS strategy
+		private int[] referencedColumns; // Only for the PAIRS strategy
+		private int partition; // Only for the PARTITIONED strategy
+		private EncodedInclusionDependency[] candidates; // Only for n-ary tasks
+		private long cost;
+		private int attempts; // The number of times the task was sent to a worker
+		private long deadline; // The time at which the task is taken away from its worker and re-queued
+	}
+
+	@Data
+	@AllArgsConstructor
+	private static class WorkerStatistics {
+		private int requestedTasks; // The tasks that the worker asked for and did not get yet
+		private int taskSize; // The number of candidates that the worker should get per task
+		private double nanosPerCandidate; // The moving average of the worker's processing time per candidate
+		private long processedCandidates;
+		private NodeLoad load; // The load that the worker reported with its last request
+		private String overload; // The reasons why the worker gets only one task at a time, or null if it is not overloaded
+	}
+
+	@Data
+	@AllArgsConstructor
+	private static class NaryGroup {
+		private int arity; // The arity of the group's current candidates
+		private List<EncodedInclusionDependency> validInclusionDependencies; // The valid dependencies of the current arity so far
+		private int pendingCandidates; // The candidates of the current arity that are not validated yet
+	}
+
+	// The master draws from the same pool as the workers of its node
+	private final PayloadProvider payloadProvider = !SystemConfigurationSingleton.get().isPerformanceTest() ? null : new PayloadProvider(PayloadPoolSingleton.get());
+
+	private final PerformanceReport performanceReport = new PerformanceReport(
+			new File(DomainConfigurationSingleton.get().getPerformanceReportOutputFileName()), String.valueOf(System.currentTimeMillis()));
+
+	private final LatencyHistogram performanceReportLatencies = new LatencyHistogram();
+	private final List<Double> performanceReportThroughputs = new ArrayList<>();
+	private long performanceReportMessages = 0;
+	private long performanceReportElapsedTimeInMillis = 0;
+	private long performanceReportPayloadGenerationTimeInMillis = 0;
+	private int performanceReportWorkers = 0;
+
+	private final Set<ActorRef<Worker.Message>> performanceReportedWorkers = new HashSet<>();
+
+	private final TrafficPattern trafficPattern = SystemConfigurationSingleton.get().getPerformanceTestTrafficPattern();
+
+	private MessageWindow broadcastWindow; // The master's own messages in the BROADCAST pattern, once the first worker registered
+	private long broadcastStartTime;
+	private long broadcastAcknowledgements = 0;
+	private final LatencyHistogram broadcastLatencies = new LatencyHistogram();
+	private final ThroughputMeter broadcastThroughput = new ThroughputMeter(TimeUnit.SECONDS.toNanos(1));
 
 	////////////////////
 	// Actor Behavior //
@@ -106,34 +373,661 @@ public class Master extends AbstractBehavior<Master.Message> {
 		return newReceiveBuilder()
 				.onMessage(StartMessage.class, this::handle)
 				.onMessage(RegistrationMessage.class, this::handle)
+				.onMessage(HeaderMessage.class, this::handle)
+				.onMessage(BatchMessage.class, this::handle)
+				.onMessage(ResultMessage.class, this::handle)
+				.onMessage(PartitionResultMessage.class, this::handle)
+				.onMessage(NaryResultMessage.class, this::handle)
+				.onMessage(WorkRequestMessage.class, this::handle)
 				.onMessage(DataMessageWithLargeMessageProxy.class, this::handle)
 				.onMessage(DataMessageDirect.class, this::handle)
+				.onMessage(StreamDataMessage.class, this::handle)
+				.onMessage(AckMessage.class, this::handle)
+				.onMessage(PerformanceReportMessage.class, this::handle)
+				.onMessage(DeadlineCheckMessage.class, this::handle)
+				.onMessage(WorkerlessTimeoutMessage.class, this::handle)
 				.onMessage(ShutdownMessage.class, this::handle)
+				.onSignal(Terminated.class, this::handle)
 				.build();
 	}
 
 	private Behavior<Message> handle(StartMessage message) {
+		if (SystemConfigurationSingleton.get().isPerformanceTest())
+			return this;
+
+		// Every reader may prefetch as many batches as it parses ranges in parallel; further batches are
+		// requested one by one as the master consumes them, so that the readers never flood the master's heap
+		int prefetch = InputConfigurationSingleton.get().getInputReaderParallelism();
+		for (int id = 0; id < this.inputFiles.length; id++) {
+			ActorRef<InputReader.Message> inputReader = this.getContext().spawn(InputReader.create(id, this.inputFiles[id]),
+					InputReader.DEFAULT_NAME + "_" + id, SystemConfigurationSingleton.get().getInputReaderDispatcherSelector());
+			this.inputReaders.add(inputReader);
+			this.getContext().watch(inputReader);
+			this.inputStartTimes[id] = System.nanoTime();
+			inputReader.tell(new InputReader.ReadHeaderMessage(this.getContext().getSelf()));
+			inputReader.tell(new InputReader.ReadBatchMessage(this.getContext().getSelf(), null, prefetch));
+		}
+		return this;
+	}
+
+	private Behavior<Message> handle(HeaderMessage message) {
+		this.headerLines[message.getId()] = message.getHeader();
+		this.columnStore.addRelation(message.getId(), this.inputFiles[message.getId()], message.getHeader());
 		return this;
 	}
 
+	private Behavior<Message> handle(BatchMessage message) {
+		int id = message.getId();
+		if (!message.getBatch().isEmpty()) {
+			// The reader answers the ReadHeaderMessage before any ReadBatchMessage, so the relation exists already
+			this.columnStore.getRelation(id).append(message.getBatch());
+			this.inputRows[id] += message.getBatch().size();
+			this.inputReaders.get(id).tell(new InputReader.ReadBatchMessage(this.getContext().getSelf(), null, 1));
+			return this;
+		}
+
+		long elapsedTimeInMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.inputStartTimes[id]));
+		this.getContext().getLog().info("Read {} rows of {} in {} ms ({} rows/s).", this.inputRows[id], this.inputFiles[id].getName(),
+				elapsedTimeInMillis, this.inputRows[id] * 1000 / elapsedTimeInMillis);
+
+		this.inputFilesRead++;
+		if (this.inputFilesRead == this.inputFiles.length) {
+			this.getContext().getLog().info("Read all {} input files with {} rows.", this.inputFiles.length, Arrays.stream(this.inputRows).sum());
+			this.columnStore.trim();
+			this.columnStore.describeFootprint().forEach(line -> this.getContext().getLog().info(line));
+			this.startDiscovery();
+		}
+		return this;
+	}
+
+	private void startDiscovery() {
+		this.discoveryStartTime = System.nanoTime();
+
+		int numberOfColumns = 0;
+		for (int relation = 0; relation < this.columnStore.getNumberOfRelations(); relation++)
+			numberOfColumns += this.columnStore.getRelation(relation).getColumns().length;
+
+		this.columnRelations = new int[numberOfColumns];
+		this.columnIndexes = new int[numberOfColumns];
+		this.columnValues = new int[numberOfColumns][];
+		int column = 0;
+		for (int relation = 0; relation < this.columnStore.getNumberOfRelations(); relation++) {
+			EncodedColumn[] columns = this.columnStore.getRelation(relation).getColumns();
+			for (int index = 0; index < columns.length; index++) {
+				this.columnRelations[column] = relation;
+				this.columnIndexes[column] = index;
+				this.columnValues[column] = this.columnStore.distinctSharedCodes(columns[index]);
+				column++;
+			}
+		}
+
+		// The sketches reject impossible candidates before any values are shipped to the workers
+		this.candidatePruner = new CandidatePruner(this.columnValues, SystemConfigurationSingleton.get().isCandidatePruning(),
+				DomainConfigurationSingleton.get().getBloomFilterSize(), DomainConfigurationSingleton.get().getBloomFilterHashFunctions());
+
+		DiscoveryStrategy strategy = SystemConfigurationSingleton.get().getDiscoveryStrategy();
+		List<DiscoveryTask> tasks = strategy == DiscoveryStrategy.PAIRS ? this.createPairTasks() : this.createPartitionTasks();
+
+		// Handing out the most expensive tasks first keeps all workers busy until the end
+		tasks.sort(Comparator.comparingLong(DiscoveryTask::getCost).reversed());
+		this.pendingTasks.addAll(tasks);
+		this.numberOfTasks = tasks.size();
+		this.discoveryStarted = true;
+
+		// Tasks of lost or stuck workers are detected by their deadlines; a check every half timeout bounds the delay
+		Duration deadlineCheckInterval = Duration.ofNanos(Math.max(TimeUnit.SECONDS.toNanos(1), this.discoveryTaskTimeoutInNanos / 2));
+		this.timers.startTimerAtFixedRate("DeadlineCheck", new DeadlineCheckMessage(), deadlineCheckInterval, deadlineCheckInterval);
+
+		this.getContext().getLog().info("Discovering unary inclusion dependencies among {} columns with {} {} tasks.", numberOfColumns, this.numberOfTasks, strategy);
+
+		if (this.numberOfTasks == 0)
+			this.finishDiscovery();
+		this.dispatchAll();
+	}
+
+	private List<DiscoveryTask> createPairTasks() {
+		// Every task checks one dependent column against all other columns; dispatch() cuts it into slices that fit the
+		// requesting worker. Empty dependent columns are trivially included in every column and therefore not reported
+		int numberOfColumns = this.columnValues.length;
+		List<DiscoveryTask> tasks = new ArrayList<>();
+		for (int dependent = 0; dependent < numberOfColumns; dependent++) {
+			if (this.columnValues[dependent].length == 0)
+				continue;
+
+			IntArrayList candidates = new IntArrayList(numberOfColumns);
+			for (int referenced = 0; referenced < numberOfColumns; referenced++)
+				if (referenced != dependent && this.candidatePruner.isCandidate(dependent, referenced))
+					candidates.add(referenced);
+
+			if (!candidates.isEmpty()) {
+				int[] referencedColumns = candidates.toIntArray();
+				tasks.add(new DiscoveryTask(tasks.size(), dependent, referencedColumns, -1, null, this.costOf(dependent, referencedColumns), 0, 0));
+			}
+		}
+		return tasks;
+	}
+
+	private List<DiscoveryTask> createPartitionTasks() {
+		// The number of partitions follows the data size, because workers on other nodes usually register only after the
+		// input was read; every registered worker still gets at least one partition, and more partitions than workers
+		// balance the load of faster workers
+		int numberOfColumns = this.columnValues.length;
+		long numberOfValues = 0;
+		for (int[] values : this.columnValues)
+			numberOfValues += values.length;
+		int numberOfPartitions = (int) Math.max(Math.max(1, this.workers.size()) * this.discoveryTasksPerWorker,
+				Math.min(Integer.MAX_VALUE, (numberOfValues + this.discoveryPartitionSize - 1) / this.discoveryPartitionSize));
+
+		// The partitions are sliced from the column values only when they are sent, so the master holds no second copy of the values
+		this.numberOfPartitions = numberOfPartitions;
+		this.partitionCandidates = new BitSet[numberOfColumns];
+		long[] costs = new long[numberOfPartitions];
+
+		for (int column = 0; column < numberOfColumns; column++) {
+			for (int value : this.columnValues[column])
+				costs[this.partitionOf(value)]++;
+
+			// Empty columns are trivially included in every column and therefore not reported
+			if (this.columnValues[column].length > 0) {
+				this.partitionCandidates[column] = new BitSet(numberOfColumns);
+				for (int referenced = 0; referenced < numberOfColumns; referenced++)
+					if (referenced != column && this.candidatePruner.isCandidate(column, referenced))
+						this.partitionCandidates[column].set(referenced);
+			}
+		}
+
+		List<DiscoveryTask> tasks = new ArrayList<>(numberOfPartitions);
+		for (int partition = 0; partition < numberOfPartitions; partition++)
+			tasks.add(new DiscoveryTask(tasks.size(), -1, null, partition, null, costs[partition], 0, 0));
+		return tasks;
+	}
+
+	private long costOf(int dependentColumn, int[] referencedColumns) {
+		long cost = 0;
+		for (int referencedColumn : referencedColumns)
+			cost += Math.min(this.columnValues[dependentColumn].length, this.columnValues[referencedColumn].length);
+		return cost;
+	}
+
+	private Behavior<Message> handle(WorkRequestMessage message) {
+		// A request that was in flight when its worker terminated must not bring the worker back
+		if (!this.workers.contains(message.getWorker()))
+			return this;
+
+		WorkerStatistics statistics = this.statisticsOf(message.getWorker());
+		statistics.setRequestedTasks(statistics.getRequestedTasks() + message.getNumberOfTasks());
+
+		// The task size follows the worker's measured speed, so that every task takes about the target time on every node
+		if (message.getNumberOfCandidates() > 0) {
+			double nanosPerCandidate = (double) message.getProcessingTimeInNanos() / message.getNumberOfCandidates();
+			statistics.setNanosPerCandidate(statistics.getProcessedCandidates() == 0 ? nanosPerCandidate : 0.7 * statistics.getNanosPerCandidate() + 0.3 * nanosPerCandidate);
+			statistics.setProcessedCandidates(statistics.getProcessedCandidates() + message.getNumberOfCandidates());
+			statistics.setTaskSize((int) Math.max(1, Math.min(this.discoveryMaxTaskSize, this.discoveryTargetTaskTimeInNanos / Math.max(1, statistics.getNanosPerCandidate()))));
+		}
+		statistics.setLoad(message.getLoad());
+
+		this.dispatch(message.getWorker());
+		return this;
+	}
+
+	private void updateOverload(ActorRef<Worker.Message> worker, WorkerStatistics statistics) {
+		NodeLoad load = statistics.getLoad();
+		String overload = this.loadBalancer.overloadOf(load, this.pendingProxyBytesTo(worker));
+		if (overload != null && statistics.getOverload() == null)
+			this.getContext().getLog().info("Throttling {} to one task at a time: {}.", worker.path(), overload);
+		else if (overload == null && statistics.getOverload() != null)
+			this.getContext().getLog().info("No longer throttling {}: {}.", worker.path(), load);
+
+		statistics.setOverload(overload);
+	}
+
+	/**
+	 * @return the bytes that the proxies of the master's node still have to deliver to the worker's node; the workers of
+	 * one node share these bytes, because their proxies share the node's connection
+	 */
+	private long pendingProxyBytesTo(ActorRef<Worker.Message> worker) {
+		ActorRef<LargeMessageProxy.Message> workerLargeMessageProxy = this.workerLargeMessageProxies.get(worker);
+		return workerLargeMessageProxy == null ? 0 : LargeMessageProxy.pendingBytesTo(workerLargeMessageProxy.path().address());
+	}
+
+	private WorkerStatistics statisticsOf(ActorRef<Worker.Message> worker) {
+		return this.workerStatistics.computeIfAbsent(worker, w -> new WorkerStatistics(0, DomainConfigurationSingleton.get().getDiscoveryTaskSize(), 0, 0, null, null));
+	}
+
+	/**
+	 * Serves the open work requests of the worker from the task queue; requests that can not be served now are kept
+	 * until new tasks arrive, so idle workers never wait behind a slow worker.
+	 */
+	private void dispatch(ActorRef<Worker.Message> worker) {
+		// Without a registered proxy the tasks could not be sent, so they stay in the queue for the other workers
+		if (!this.workerLargeMessageProxies.containsKey(worker))
+			return;
+
+		Map<Integer, DiscoveryTask> tasks = this.workerTasks.computeIfAbsent(worker, w -> new HashMap<>());
+		WorkerStatistics statistics = this.statisticsOf(worker);
+		// The bytes that are still on their way to the worker's node change with every task, so its overload is updated on every dispatch
+		this.updateOverload(worker, statistics);
+		// An overloaded worker keeps its requests, but it gets its next task only when it has none
+		while (statistics.getRequestedTasks() > 0 && !this.pendingTasks.isEmpty() && (statistics.getOverload() == null || tasks.isEmpty())) {
+			DiscoveryTask task = this.nextTask(statistics.getTaskSize());
+			tasks.put(task.getId(), task);
+			statistics.setRequestedTasks(statistics.getRequestedTasks() - 1);
+			this.send(worker, task);
+		}
+
+		if (statistics.getOverload() != null && statistics.getRequestedTasks() > 0 && !this.pendingTasks.isEmpty()) {
+			this.heldBackDecisions.increment();
+			this.getContext().getLog().info("Holding back {} requested tasks from {}, which still works on {} tasks: {}.", statistics.getRequestedTasks(),
+					worker.path(), tasks.size(), statistics.getOverload());
+		}
+	}
+
+	/**
+	 * Serves the open work requests of all workers. If there are fewer tasks than requests, the order decides which
+	 * workers get them, so the workers are served by their load, the least loaded first, and the order is logged and
+	 * counted whenever it decides.
+	 */
+	private void dispatchAll() {
+		List<ActorRef<Worker.Message>> workers = new ArrayList<>(this.workers);
+		if (this.loadBalancer.isEnabled() && workers.size() > 1) {
+			double fastestNanosPerCandidate = 0;
+			int requestedTasks = 0;
+			for (ActorRef<Worker.Message> worker : workers) {
+				WorkerStatistics statistics = this.statisticsOf(worker);
+				if (statistics.getNanosPerCandidate() > 0 && (fastestNanosPerCandidate == 0 || statistics.getNanosPerCandidate() < fastestNanosPerCandidate))
+					fastestNanosPerCandidate = statistics.getNanosPerCandidate();
+				requestedTasks += statistics.getRequestedTasks();
+			}
+
+			Map<ActorRef<Worker.Message>, Double> scores = new HashMap<>();
+			for (ActorRef<Worker.Message> worker : workers) {
+				WorkerStatistics statistics = this.statisticsOf(worker);
+				scores.put(worker, this.loadBalancer.scoreOf(statistics.getLoad(), this.pendingProxyBytesTo(worker), statistics.getNanosPerCandidate(), fastestNanosPerCandidate));
+			}
+			workers.sort(Comparator.comparingDouble(scores::get));
+
+			if (!this.pendingTasks.isEmpty() && this.pendingTasks.size() < requestedTasks) {
+				this.reorderDecisions.increment();
+				this.getContext().getLog().info("{} tasks for {} requests; serving the workers by load: {}", this.pendingTasks.size(), requestedTasks,
+						workers.stream().map(worker -> String.format(Locale.ROOT, "%s %.2f", worker.path().name(), scores.get(worker))).collect(Collectors.joining(", ")));
+			}
+		}
+
+		for (ActorRef<Worker.Message> worker : workers)
+			this.dispatch(worker);
+	}
+
+	/**
+	 * @return the head of the task queue, or a slice of it with the given number of candidates if it is larger;
+	 * partition tasks are never sliced
+	 */
+	private DiscoveryTask nextTask(int taskSize) {
+		DiscoveryTask task = this.pendingTasks.peek();
+		if (task.getCandidates() != null && task.getCandidates().length > taskSize) {
+			EncodedInclusionDependency[] candidates = task.getCandidates();
+			task.setCandidates(Arrays.copyOfRange(candidates, taskSize, candidates.length));
+			task.setCost(task.getCandidates().length);
+			return new DiscoveryTask(this.numberOfTasks++, -1, null, -1, Arrays.copyOf(candidates, taskSize), taskSize, task.getAttempts(), 0);
+		}
+		if (task.getReferencedColumns() != null && task.getReferencedColumns().length > taskSize) {
+			int[] referencedColumns = task.getReferencedColumns();
+			int[] slice = Arrays.copyOf(referencedColumns, taskSize);
+			task.setReferencedColumns(Arrays.copyOfRange(referencedColumns, taskSize, referencedColumns.length));
+			task.setCost(this.costOf(task.getDependentColumn(), task.getReferencedColumns()));
+			return new DiscoveryTask(this.numberOfTasks++, task.getDependentColumn(), slice, -1, null, this.costOf(task.getDependentColumn(), slice), task.getAttempts(), 0);
+		}
+		return this.pendingTasks.poll();
+	}
+
+	private void send(ActorRef<Worker.Message> worker, DiscoveryTask task) {
+		// Every further attempt gets twice the time of the previous one, so that a task that is just slow everywhere
+		// is not re-queued forever
+		task.setAttempts(task.getAttempts() + 1);
+		task.setDeadline(System.nanoTime() + (this.discoveryTaskTimeoutInNanos << Math.min(task.getAttempts() - 1, 16)));
+
+		if (task.getCandidates() != null)
+			this.sendNary(worker, task);
+		else if (task.getPartition() >= 0)
+			this.sendPartition(worker, task);
+		else
+			this.sendPair(worker, task);
+	}
+
+	private void sendPartition(ActorRef<Worker.Message> worker, DiscoveryTask task) {
+		IntArrayList columnIds = new IntArrayList();
+		List<int[]> columnValues = new ArrayList<>();
+		IntArrayList slice = new IntArrayList();
+		for (int column = 0; column < this.columnValues.length; column++) {
+			slice.clear();
+			for (int value : this.columnValues[column])
+				if (this.partitionOf(value) == task.getPartition())
+					slice.add(value);
+			if (!slice.isEmpty()) {
+				columnIds.add(column);
+				columnValues.add(slice.toIntArray());
+			}
+		}
+
+		Worker.PartitionTaskMessage message = new Worker.PartitionTaskMessage(this.getContext().getSelf(), task.getId(), this.columnValues.length,
+				columnIds.toIntArray(), columnValues.toArray(new int[0][]));
+		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(message, this.workerLargeMessageProxies.get(worker), worker.unsafeUpcast()));
+	}
+
+	private int partitionOf(int value) {
+		return Math.floorMod(HashCommon.mix(value), this.numberOfPartitions);
+	}
+
+	private void sendPair(ActorRef<Worker.Message> worker, DiscoveryTask task) {
+		// The worker keeps every column for all of its later tasks, so a task carries only the columns it may lack
+		int[] missingColumns = this.workerColumns.missing(worker, new int[]{task.getDependentColumn()}, task.getReferencedColumns());
+
+		int[][] missingValues = new int[missingColumns.length][];
+		for (int i = 0; i < missingColumns.length; i++)
+			missingValues[i] = this.columnValues[missingColumns[i]];
+
+		Worker.TaskMessage message = new Worker.TaskMessage(this.getContext().getSelf(), task.getId(), task.getDependentColumn(),
+				task.getReferencedColumns(), missingColumns, missingValues);
+		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(message, this.workerLargeMessageProxies.get(worker), worker.unsafeUpcast()));
+	}
+
+	private void sendNary(ActorRef<Worker.Message> worker, DiscoveryTask task) {
+		// Like the distinct values of the unary tasks, the row-aligned codes of a column go with every task until the worker confirms them
+		int[][] dependentColumns = new int[task.getCandidates().length][];
+		int[][] referencedColumns = new int[task.getCandidates().length][];
+		for (int i = 0; i < task.getCandidates().length; i++) {
+			dependentColumns[i] = task.getCandidates()[i].getDependentColumns();
+			referencedColumns[i] = task.getCandidates()[i].getReferencedColumns();
+		}
+		int[] missingColumns = this.workerRows.missing(worker, this.naryColumnsOf(task));
+
+		int[][] missingCodes = new int[missingColumns.length][];
+		for (int i = 0; i < missingColumns.length; i++) {
+			int column = missingColumns[i];
+			missingCodes[i] = this.columnStore.sharedCodes(this.columnStore.getRelation(this.columnRelations[column]).getColumns()[this.columnIndexes[column]]);
+		}
+
+		Worker.NaryTaskMessage message = new Worker.NaryTaskMessage(this.getContext().getSelf(), task.getId(), dependentColumns, referencedColumns,
+				missingColumns, missingCodes);
+		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(message, this.workerLargeMessageProxies.get(worker), worker.unsafeUpcast()));
+	}
+
+	private int[][] naryColumnsOf(DiscoveryTask task) {
+		int[][] columnLists = new int[2 * task.getCandidates().length][];
+		for (int i = 0; i < task.getCandidates().length; i++) {
+			columnLists[2 * i] = task.getCandidates()[i].getDependentColumns();
+			columnLists[2 * i + 1] = task.getCandidates()[i].getReferencedColumns();
+		}
+		return columnLists;
+	}
+
+	private Behavior<Message> handle(ResultMessage message) {
+		// A task that was re-queued is no longer assigned to its former worker, so a late result of it is a duplicate
+		Map<Integer, DiscoveryTask> tasks = this.workerTasks.get(message.getWorker());
+		DiscoveryTask task = tasks == null ? null : tasks.remove(message.getTaskId());
+		if (task == null)
+			return this;
+		this.workerColumns.confirm(message.getWorker(), new int[]{task.getDependentColumn()}, task.getReferencedColumns());
+
+		List<InclusionDependency> inclusionDependencies = new ArrayList<>(message.getReferencedColumns().length);
+		for (int referencedColumn : message.getReferencedColumns()) {
+			inclusionDependencies.add(this.toInclusionDependency(message.getDependentColumn(), referencedColumn));
+			this.unaryInclusionDependencies.add(new EncodedInclusionDependency(new int[]{message.getDependentColumn()}, new int[]{referencedColumn}));
+		}
+		if (!inclusionDependencies.isEmpty())
+			this.resultCollector.tell(new ResultCollector.ResultMessage(inclusionDependencies));
+		this.numberOfInclusionDependencies += inclusionDependencies.size();
+
+		this.completeTask(message.getWorker());
+		return this;
+	}
+
+	private Behavior<Message> handle(PartitionResultMessage message) {
+		Map<Integer, DiscoveryTask> tasks = this.workerTasks.get(message.getWorker());
+		if (tasks == null || tasks.remove(message.getTaskId()) == null)
+			return this;
+
+		for (int i = 0; i < message.getDependentColumns().length; i++)
+			this.partitionCandidates[message.getDependentColumns()[i]].and(BitSet.valueOf(message.getReferencedColumns()[i]));
+
+		// The candidates are only valid once they survived all partitions
+		if (this.numberOfCompletedTasks + 1 == this.numberOfTasks) {
+			List<InclusionDependency> inclusionDependencies = new ArrayList<>();
+			for (int dependentColumn = 0; dependentColumn < this.partitionCandidates.length; dependentColumn++) {
+				BitSet candidates = this.partitionCandidates[dependentColumn];
+				if (candidates != null)
+					for (int referencedColumn = candidates.nextSetBit(0); referencedColumn >= 0; referencedColumn = candidates.nextSetBit(referencedColumn + 1)) {
+						inclusionDependencies.add(this.toInclusionDependency(dependentColumn, referencedColumn));
+						this.unaryInclusionDependencies.add(new EncodedInclusionDependency(new int[]{dependentColumn}, new int[]{referencedColumn}));
+					}
+			}
+			if (!inclusionDependencies.isEmpty())
+				this.resultCollector.tell(new ResultCollector.ResultMessage(inclusionDependencies));
+			this.numberOfInclusionDependencies += inclusionDependencies.size();
+		}
+
+		this.completeTask(message.getWorker());
+		return this;
+	}
+
+	private Behavior<Message> handle(NaryResultMessage message) {
+		Map<Integer, DiscoveryTask> tasks = this.workerTasks.get(message.getWorker());
+		DiscoveryTask task = tasks == null ? null : tasks.remove(message.getTaskId());
+		if (task == null)
+			return this;
+		this.workerRows.confirm(message.getWorker(), this.naryColumnsOf(task));
+
+		EncodedInclusionDependency[] candidates = task.getCandidates();
+		NaryGroup group = this.naryGroups[this.columnRelations[candidates[0].getDependentColumns()[0]]][this.columnRelations[candidates[0].getReferencedColumns()[0]]];
+
+		List<InclusionDependency> inclusionDependencies = new ArrayList<>(message.getValidCandidates().length);
+		for (int candidate : message.getValidCandidates()) {
+			group.getValidInclusionDependencies().add(candidates[candidate]);
+			inclusionDependencies.add(this.toInclusionDependency(candidates[candidate].getDependentColumns(), candidates[candidate].getReferencedColumns()));
+			this.maxArity = Math.max(this.maxArity, candidates[candidate].arity());
+		}
+		if (!inclusionDependencies.isEmpty())
+			this.resultCollector.tell(new ResultCollector.ResultMessage(inclusionDependencies));
+		this.numberOfInclusionDependencies += inclusionDependencies.size();
+
+		group.setPendingCandidates(group.getPendingCandidates() - candidates.length);
+		if (group.getPendingCandidates() == 0) {
+			this.advance(group);
+			this.dispatchAll();
+		}
+
+		this.completeTask(message.getWorker());
+		return this;
+	}
+
+	private void completeTask(ActorRef<Worker.Message> worker) {
+		this.numberOfCompletedTasks++;
+		if (this.numberOfCompletedTasks == this.numberOfTasks && this.hardMode && !this.naryDiscoveryStarted)
+			this.startNaryDiscovery();
+
+		if (this.numberOfCompletedTasks == this.numberOfTasks)
+			this.finishDiscovery();
+		else
+			this.dispatch(worker);
+	}
+
+	private void startNaryDiscovery() {
+		this.naryDiscoveryStarted = true;
+
+		int numberOfRelations = this.columnStore.getNumberOfRelations();
+		this.naryGroups = new NaryGroup[numberOfRelations][numberOfRelations];
+		for (EncodedInclusionDependency inclusionDependency : this.unaryInclusionDependencies) {
+			int dependentRelation = this.columnRelations[inclusionDependency.getDependentColumns()[0]];
+			int referencedRelation = this.columnRelations[inclusionDependency.getReferencedColumns()[0]];
+			if (this.naryGroups[dependentRelation][referencedRelation] == null)
+				this.naryGroups[dependentRelation][referencedRelation] = new NaryGroup(1, new ArrayList<>(), 0);
+			this.naryGroups[dependentRelation][referencedRelation].getValidInclusionDependencies().add(inclusionDependency);
+		}
+
+		this.getContext().getLog().info("Discovering n-ary inclusion dependencies from {} unary inclusion dependencies.", this.unaryInclusionDependencies.size());
+
+		for (NaryGroup[] groups : this.naryGroups)
+			for (NaryGroup group : groups)
+				if (group != null)
+					this.advance(group);
+		this.dispatchAll();
+	}
+
+	/**
+	 * Generates the candidates of the group's next arity from its valid dependencies and schedules them. Every pair of
+	 * relations advances on its own as soon as all of its candidates are validated, so there is no barrier between the
+	 * levels: the workers validate the candidates of other pairs of relations in the meantime.
+	 */
+	private void advance(NaryGroup group) {
+		List<EncodedInclusionDependency> candidates = AprioriCandidateGenerator.generate(group.getValidInclusionDependencies());
+		group.setArity(group.getArity() + 1);
+		group.setValidInclusionDependencies(new ArrayList<>());
+		group.setPendingCandidates(candidates.size());
+
+		if (!candidates.isEmpty())
+			this.pendingTasks.add(new DiscoveryTask(this.numberOfTasks++, -1, null, -1, candidates.toArray(new EncodedInclusionDependency[0]), candidates.size(), 0, 0));
+	}
+
+	private InclusionDependency toInclusionDependency(int dependentColumn, int referencedColumn) {
+		return this.toInclusionDependency(new int[]{dependentColumn}, new int[]{referencedColumn});
+	}
+
+	private InclusionDependency toInclusionDependency(int[] dependentColumns, int[] referencedColumns) {
+		EncodedRelation dependentRelation = this.columnStore.getRelation(this.columnRelations[dependentColumns[0]]);
+		EncodedRelation referencedRelation = this.columnStore.getRelation(this.columnRelations[referencedColumns[0]]);
+		return new InclusionDependency(
+				dependentRelation.getFile(), this.namesOf(dependentRelation, dependentColumns),
+				referencedRelation.getFile(), this.namesOf(referencedRelation, referencedColumns));
+	}
+
+	private String[] namesOf(EncodedRelation relation, int[] columns) {
+		String[] names = new String[columns.length];
+		for (int i = 0; i < columns.length; i++)
+			names[i] = relation.getColumns()[this.columnIndexes[columns[i]]].getName();
+		return names;
+	}
+
+	private Behavior<Message> handle(DeadlineCheckMessage message) {
+		long now = System.nanoTime();
+		int requeuedTasks = 0;
+		for (Map<Integer, DiscoveryTask> tasks : this.workerTasks.values()) {
+			Iterator<DiscoveryTask> iterator = tasks.values().iterator();
+			while (iterator.hasNext()) {
+				DiscoveryTask task = iterator.next();
+				if (task.getDeadline() < now) {
+					// A late result of the task's worker is then dropped, because the task is no longer assigned to it
+					iterator.remove();
+					this.pendingTasks.addFirst(task);
+					requeuedTasks++;
+				}
+			}
+		}
+
+		if (requeuedTasks > 0) {
+			this.getContext().getLog().warn("Re-queued {} tasks that missed their deadline.", requeuedTasks);
+			this.dispatchAll();
+		}
+		return this;
+	}
+
+	private Behavior<Message> handle(Terminated signal) {
+		// A reader stops only if it could not read its file, and discovering on an incomplete relation would be wrong
+		if (this.inputReaders.contains(signal.getRef())) {
+			if (!this.discoveryStarted) {
+				this.getContext().getLog().error("Lost {} before it read its entire file; stopping the discovery.", signal.getRef().path());
+				this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
+			}
+			return this;
+		}
+
+		ActorRef<Worker.Message> worker = signal.getRef().unsafeUpcast();
+		this.workers.remove(worker);
+		this.workerLargeMessageProxies.remove(worker);
+		this.workerColumns.remove(worker);
+		this.workerRows.remove(worker);
+		this.workerStatistics.remove(worker);
+
+		if (SystemConfigurationSingleton.get().isPerformanceTest()) {
+			this.shutdownIfAllWorkersReported();
+			return this;
+		}
+
+		Map<Integer, DiscoveryTask> tasks = this.workerTasks.remove(worker);
+		if (tasks != null && !tasks.isEmpty()) {
+			tasks.values().forEach(this.pendingTasks::addFirst);
+			this.getContext().getLog().warn("Lost {}; re-queued its {} tasks.", worker.path(), tasks.size());
+			this.dispatchAll();
+		}
+
+		// Without workers, the re-queued tasks would wait forever, so the discovery fails if no new worker registers in time
+		if (this.workers.isEmpty() && this.discoveryStarted && !this.pendingTasks.isEmpty()) {
+			this.getContext().getLog().warn("Lost all workers; waiting up to {} s for a new worker.", this.discoveryWorkerlessTimeout.getSeconds());
+			this.timers.startSingleTimer("WorkerlessTimeout", new WorkerlessTimeoutMessage(), this.discoveryWorkerlessTimeout);
+		}
+		return this;
+	}
+
+	private Behavior<Message> handle(WorkerlessTimeoutMessage message) {
+		if (!this.workers.isEmpty())
+			return this;
+
+		this.getContext().getLog().error("No worker registered within {} s after the last one was lost; stopping the discovery with {} tasks left.",
+				this.discoveryWorkerlessTimeout.getSeconds(), this.pendingTasks.size());
+		this.timers.cancel("DeadlineCheck");
+		this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
+		return this;
+	}
+
+	private void finishDiscovery() {
+		this.timers.cancel("DeadlineCheck");
+		this.getContext().getLog().info("Discovered {} inclusion dependencies ({} unary, largest arity {}) with {} workers in {} ms.",
+				this.numberOfInclusionDependencies, this.unaryInclusionDependencies.size(), Math.max(this.maxArity, this.unaryInclusionDependencies.isEmpty() ? 0 : 1),
+				this.workers.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.discoveryStartTime));
+		this.candidatePruner.describe(this.unaryInclusionDependencies.size()).forEach(line -> this.getContext().getLog().info(line));
+		this.workerStatistics.forEach((worker, statistics) -> this.getContext().getLog().info("{} processed {} candidates at {} µs per candidate; last task size {}; last load: {}.",
+				worker.path(), statistics.getProcessedCandidates(), String.format(Locale.ROOT, "%.1f", statistics.getNanosPerCandidate() / 1000), statistics.getTaskSize(), statistics.getLoad()));
+
+		this.resultCollector.tell(new ResultCollector.FinalizeMessage());
+		this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
+	}
 
 	private Behavior<Message> handle(RegistrationMessage message) {
 		ActorRef<Worker.Message> worker = message.getWorker();
 		if (!this.workers.contains(worker)) {
+			this.timers.cancel("WorkerlessTimeout");
 			this.workers.add(worker);
+			this.workerLargeMessageProxies.put(worker, message.getLargeMessageProxy());
 			this.getContext().watch(worker);
-			if (SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy()) {
-				sendMessageToWorkerUsingLargeMessageProxy(message.getLargeMessageProxy());
-			} else {
-				sendMessageToWorkerDirectly(worker);
+			// In the discovery, the worker pulls its tasks with WorkRequestMessages
+			if (!SystemConfigurationSingleton.get().isPerformanceTest())
+				return this;
+			switch (this.trafficPattern) {
+				case PIPELINED:
+					worker.tell(new Worker.TrafficStartMessage(this.largeMessageProxy, new ArrayList<>(), new ArrayList<>()));
+					break;
+				case BROADCAST:
+					this.broadcast();
+					break;
+				case ALL_TO_ALL:
+					// Every worker learns about every new peer, because the workers register one by one
+					List<ActorRef<LargeMessageProxy.Message>> peerLargeMessageProxies = new ArrayList<>();
+					for (ActorRef<Worker.Message> peer : this.workers)
+						peerLargeMessageProxies.add(this.workerLargeMessageProxies.get(peer));
+					for (ActorRef<Worker.Message> peer : this.workers)
+						peer.tell(new Worker.TrafficStartMessage(this.largeMessageProxy, new ArrayList<>(this.workers), peerLargeMessageProxies));
+					break;
+				default:
+					if (SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy()) {
+						sendMessageToWorkerUsingLargeMessageProxy(worker, message.getLargeMessageProxy());
+					} else {
+						sendMessageToWorkerDirectly(worker);
+					}
 			}
-
 		}
 		return this;
 	}
 
 	private Behavior<Message> handle(DataMessageWithLargeMessageProxy message) {
-		sendMessageToWorkerUsingLargeMessageProxy(message.getWorkerLargeMessageProxy());
+		sendMessageToWorkerUsingLargeMessageProxy(message.getWorker(), message.getWorkerLargeMessageProxy());
 		return this;
 	}
 
@@ -142,25 +1036,132 @@ public class Master extends AbstractBehavior<Master.Message> {
 		return this;
 	}
 
-	private void sendMessageToWorkerUsingLargeMessageProxy(ActorRef<LargeMessageProxy.Message> workerMessageProxy) {
-		this.getContext().getLog().info("Sending a message to a worker via the Large Message Proxy!");
+	private Behavior<Message> handle(StreamDataMessage message) {
+		message.getWorker().tell(new Worker.AckMessage(message.getSequence()));
+		return this;
+	}
+
+	private void broadcast() {
+		if (this.broadcastWindow == null) {
+			this.getContext().getLog().info("Starting performance analysis by broadcasting {} messages with up to {} in flight!",
+					SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages(), SystemConfigurationSingleton.get().getPerformanceTestWindowSize());
+			this.broadcastWindow = new MessageWindow(SystemConfigurationSingleton.get().getPerformanceTestWindowSize(), SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages());
+			this.broadcastStartTime = System.nanoTime();
+			this.broadcastThroughput.start(this.broadcastStartTime);
+		}
+
+		// Workers that register later get only the messages that are sent after their registration
+		while (this.broadcastWindow.canSend() && !this.workers.isEmpty()) {
+			byte[] data = this.generateDataMessage();
+			long sequence = this.broadcastWindow.send(this.workers.size(), System.nanoTime());
+			for (ActorRef<Worker.Message> worker : this.workers) {
+				Worker.StreamDataMessage streamDataMessage = new Worker.StreamDataMessage(this.getContext().getSelf(), sequence, data);
+				if (SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy())
+					this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(streamDataMessage, this.workerLargeMessageProxies.get(worker), worker.unsafeUpcast()));
+				else
+					worker.tell(streamDataMessage);
+			}
+		}
+	}
+
+	private Behavior<Message> handle(AckMessage message) {
+		if (this.broadcastWindow == null)
+			return this;
+
+		long now = System.nanoTime();
+		long latencyInNanos = this.broadcastWindow.acknowledge(message.getSequence(), now);
+		if (latencyInNanos < 0)
+			return this;
+
+		this.broadcastLatencies.record(TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+		this.broadcastThroughput.record(SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInBytes(), now);
+		this.broadcastAcknowledgements++;
+
+		if (!this.broadcastWindow.isComplete()) {
+			this.broadcast();
+			return this;
+		}
+
+		this.getContext().getLog().info("Performance analysis finished! Broadcast {} messages to {} workers in {} ms.", this.broadcastWindow.getSentMessages(),
+				this.workers.size(), TimeUnit.NANOSECONDS.toMillis(now - this.broadcastStartTime));
+		this.writeBroadcastReport(now);
+		this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
+		return this;
+	}
+
+	private void writeBroadcastReport(long now) {
+		this.writePerformanceReport(this.getContext().getSelf().path().toString(), this.workers.size(), this.broadcastAcknowledgements,
+				TimeUnit.NANOSECONDS.toMillis(now - this.broadcastStartTime), TimeUnit.NANOSECONDS.toMillis(this.payloadProvider.getGenerationTimeInNanos()),
+				this.broadcastLatencies, this.broadcastThroughput.getThroughputsInMBps());
+	}
+
+	private void sendMessageToWorkerUsingLargeMessageProxy(ActorRef<Worker.Message> worker, ActorRef<LargeMessageProxy.Message> workerMessageProxy) {
+		// Logging every message would distort the latencies of the small PING_PONG messages
+		if (this.trafficPattern != TrafficPattern.PING_PONG)
+			this.getContext().getLog().info("Sending a message to a worker via the Large Message Proxy!");
 		byte[] data = generateDataMessage();
-		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(this.largeMessageProxy, data), workerMessageProxy));
+		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(this.largeMessageProxy, data), workerMessageProxy, worker.unsafeUpcast()));
 	}
 
 	private void sendMessageToWorkerDirectly(ActorRef<Worker.Message> worker) {
-		this.getContext().getLog().info("Sending a message to a worker directly!");
+		if (this.trafficPattern != TrafficPattern.PING_PONG)
+			this.getContext().getLog().info("Sending a message to a worker directly!");
 		byte[] data = generateDataMessage();
 		worker.tell(new Worker.DataMessageDirect(this.getContext().getSelf(), data));
 	}
 
 	private byte[] generateDataMessage() {
-		byte[] data = new byte[SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInMB() * 1024 * 1024];
-		this.random.nextBytes(data);
-		return data;
+		return this.payloadProvider.next();
+	}
+
+	private Behavior<Message> handle(PerformanceReportMessage message) {
+		this.performanceReportLatencies.add(message.getLatencies());
+		for (double throughput : message.getThroughputsInMBps())
+			this.performanceReportThroughputs.add(throughput);
+		this.performanceReportMessages += message.getNumberOfMessages();
+		this.performanceReportElapsedTimeInMillis = Math.max(this.performanceReportElapsedTimeInMillis, message.getElapsedTimeInMillis());
+		this.performanceReportPayloadGenerationTimeInMillis += message.getPayloadGenerationTimeInMillis();
+		this.performanceReportWorkers++;
+		this.performanceReportedWorkers.add(message.getWorker());
+
+		// Every worker's row is written right away, because its report may arrive just before the shutdown
+		this.writePerformanceReport(message.getWorker().path().toString(), 1, message.getNumberOfMessages(),
+				message.getElapsedTimeInMillis(), message.getPayloadGenerationTimeInMillis(), message.getLatencies(), message.getThroughputsInMBps());
+		this.shutdownIfAllWorkersReported();
+		return this;
+	}
+
+	private void shutdownIfAllWorkersReported() {
+		// In the multi-peer patterns, other workers are still streaming when one is done, so only the master ends the test
+		if (this.trafficPattern != TrafficPattern.PIPELINED && this.trafficPattern != TrafficPattern.ALL_TO_ALL)
+			return;
+		if (this.performanceReportedWorkers.isEmpty() || !this.performanceReportedWorkers.containsAll(this.workers))
+			return;
+
+		this.getContext().getLog().info("Performance analysis finished! All {} workers reported.", this.performanceReportedWorkers.size());
+		this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
+	}
+
+	private void writePerformanceReport(String source, int workers, long messages, long elapsedTimeInMillis, long payloadGenerationTimeInMillis,
+										LatencyHistogram latencies, double[] throughputs) {
+		try {
+			this.performanceReport.append(source, workers, messages, elapsedTimeInMillis, payloadGenerationTimeInMillis, latencies, throughputs);
+		} catch (IOException e) {
+			this.getContext().getLog().error("Could not write the performance report!", e);
+		}
 	}
 
 	private Behavior<Message> handle(ShutdownMessage message) {
+		// A broadcast that is stopped before it finished still reports its partial results
+		if (this.broadcastWindow != null && !this.broadcastWindow.isComplete())
+			this.writeBroadcastReport(System.nanoTime());
+
+		// The aggregated generation time includes the master's own payloads, which delay its answers to the workers
+		if (this.performanceReportWorkers > 0)
+			this.writePerformanceReport("all", this.performanceReportWorkers, this.performanceReportMessages, this.performanceReportElapsedTimeInMillis,
+					this.performanceReportPayloadGenerationTimeInMillis + TimeUnit.NANOSECONDS.toMillis(this.payloadProvider.getGenerationTimeInNanos()),
+					this.performanceReportLatencies, this.performanceReportThroughputs.stream().mapToDouble(Double::doubleValue).toArray());
+
 		// If we expect the system to still be active when the a ShutdownMessage is issued,
 		// we should propagate this ShutdownMessage to all active child actors so that they
 		// can end their protocols in a clean way. Simply stopping this actor also stops all
@@ -0,0 +1,153 @@
+package de.ddm.actors;
+
+import akka.actor.typed.Behavior;
+import akka.actor.typed.PostStop;
+import akka.actor.typed.javadsl.AbstractBehavior;
+import akka.actor.typed.javadsl.ActorContext;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.actor.typed.javadsl.Receive;
+import akka.actor.typed.javadsl.TimerScheduler;
+import akka.actor.typed.receptionist.Receptionist;
+import akka.actor.typed.receptionist.ServiceKey;
+import de.ddm.metrics.MetricsEndpoint;
+import de.ddm.metrics.MetricsSnapshot;
+import de.ddm.metrics.PrometheusFormat;
+import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the latest metrics snapshot of every node and exports all of them in the Prometheus text format, on an HTTP
+ * endpoint and/or in a file that a scraper (e.g. the textfile collector of the node exporter) picks up.
+ */
+public class MetricsCollector extends AbstractBehavior<MetricsCollector.Message> {
+
+	////////////////////
+	// Actor Messages //
+	////////////////////
+
+	public interface Message extends AkkaSerializable {
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class SnapshotMessage implements Message {
+		private static final long serialVersionUID = 6405187723946131093L;
+		MetricsSnapshot snapshot;
+	}
+
+	@NoArgsConstructor
+	private static class ExportMessage implements Message {
+		private static final long serialVersionUID = 1530274867710465922L;
+	}
+
+	////////////////////////
+	// Actor Construction //
+	////////////////////////
+
+	public static final String DEFAULT_NAME = "metricsCollector";
+
+	public static final ServiceKey<MetricsCollector.Message> metricsCollectorService = ServiceKey.create(MetricsCollector.Message.class, DEFAULT_NAME + "Service");
+
+	public static Behavior<Message> create() {
+		return Behaviors.setup(
+				context -> Behaviors.withTimers(timers -> new MetricsCollector(context, timers)));
+	}
+
+	private MetricsCollector(ActorContext<Message> context, TimerScheduler<Message> timers) throws IOException {
+		super(context);
+
+		int port = SystemConfigurationSingleton.get().getMetricsPort();
+		this.endpoint = port > 0 ? new MetricsEndpoint(port) : null;
+		if (this.endpoint != null)
+			this.getContext().getLog().info("Serving metrics on port {} at {}.", port, MetricsEndpoint.PATH);
+
+		String file = SystemConfigurationSingleton.get().getMetricsFile();
+		this.file = file.isEmpty() ? null : Paths.get(file);
+
+		context.getSystem().receptionist().tell(Receptionist.register(metricsCollectorService, context.getSelf()));
+		timers.startTimerAtFixedRate("Export", new ExportMessage(), this.interval, this.interval);
+	}
+
+	/////////////////
+	// Actor State //
+	/////////////////
+
+	private final Duration interval = Duration.ofSeconds(Math.max(1, SystemConfigurationSingleton.get().getMetricsIntervalInSeconds()));
+
+	private final MetricsEndpoint endpoint;
+
+	private final Path file;
+
+	private final Map<String, MetricsSnapshot> snapshots = new HashMap<>(); // The latest snapshot of every node
+
+	// The local arrival time of every node's latest snapshot, because the clocks of the nodes may differ
+	private final Map<String, Long> arrivalTimesInNanos = new HashMap<>();
+
+	////////////////////
+	// Actor Behavior //
+	////////////////////
+
+	@Override
+	public Receive<Message> createReceive() {
+		return newReceiveBuilder()
+				.onMessage(SnapshotMessage.class, this::handle)
+				.onMessage(ExportMessage.class, this::handle)
+				.onSignal(PostStop.class, this::handle)
+				.build();
+	}
+
+	private Behavior<Message> handle(SnapshotMessage message) {
+		this.snapshots.put(message.getSnapshot().getNode(), message.getSnapshot());
+		this.arrivalTimesInNanos.put(message.getSnapshot().getNode(), System.nanoTime());
+		return this;
+	}
+
+	private Behavior<Message> handle(ExportMessage message) {
+		// Nodes that missed three reports have most likely left the cluster, and their last values would be misleading
+		long oldestArrivalTime = System.nanoTime() - 3 * this.interval.toNanos();
+		this.arrivalTimesInNanos.values().removeIf(arrivalTime -> arrivalTime - oldestArrivalTime < 0);
+		this.snapshots.keySet().retainAll(this.arrivalTimesInNanos.keySet());
+
+		this.export();
+		return this;
+	}
+
+	private Behavior<Message> handle(PostStop signal) {
+		this.export();
+		if (this.endpoint != null)
+			this.endpoint.stop();
+		return this;
+	}
+
+	private void export() {
+		String text = PrometheusFormat.render(this.snapshots.values());
+
+		if (this.endpoint != null)
+			this.endpoint.publish(text);
+
+		if (this.file != null) {
+			try {
+				// Scrapers must never see a half-written file
+				Path temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+				Files.write(temporaryFile, text.getBytes(StandardCharsets.UTF_8));
+				Files.move(temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				this.getContext().getLog().warn("Could not write the metrics to {}!", this.file, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package de.ddm.actors;
+
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.Behavior;
+import akka.actor.typed.javadsl.AbstractBehavior;
+import akka.actor.typed.javadsl.ActorContext;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.actor.typed.javadsl.Receive;
+import akka.actor.typed.javadsl.TimerScheduler;
+import akka.actor.typed.receptionist.Receptionist;
+import de.ddm.metrics.MetricsSnapshot;
+import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.MetricsRegistrySingleton;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ships a snapshot of this node's MetricsRegistry to every MetricsCollector in the cluster at a fixed rate.
+ */
+public class MetricsReporter extends AbstractBehavior<MetricsReporter.Message> {
+
+	////////////////////
+	// Actor Messages //
+	////////////////////
+
+	public interface Message extends AkkaSerializable {
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ReceptionistListingMessage implements Message {
+		private static final long serialVersionUID = 4383125462707931548L;
+		Receptionist.Listing listing;
+	}
+
+	@NoArgsConstructor
+	private static class ReportMessage implements Message {
+		private static final long serialVersionUID = -2217506237410387395L;
+	}
+
+	////////////////////////
+	// Actor Construction //
+	////////////////////////
+
+	public static final String DEFAULT_NAME = "metricsReporter";
+
+	public static Behavior<Message> create() {
+		return Behaviors.setup(
+				context -> Behaviors.withTimers(timers -> new MetricsReporter(context, timers)));
+	}
+
+	private MetricsReporter(ActorContext<Message> context, TimerScheduler<Message> timers) {
+		super(context);
+
+		final ActorRef<Receptionist.Listing> listingResponseAdapter = context.messageAdapter(Receptionist.Listing.class, ReceptionistListingMessage::new);
+		context.getSystem().receptionist().tell(Receptionist.subscribe(MetricsCollector.metricsCollectorService, listingResponseAdapter));
+
+		Duration interval = Duration.ofSeconds(Math.max(1, SystemConfigurationSingleton.get().getMetricsIntervalInSeconds()));
+		timers.startTimerAtFixedRate("Report", new ReportMessage(), interval, interval);
+	}
+
+	/////////////////
+	// Actor State //
+	/////////////////
+
+	private final String node = SystemConfigurationSingleton.get().getRole() + "@" + SystemConfigurationSingleton.get().getHost() + ":" + SystemConfigurationSingleton.get().getPort();
+
+	private Set<ActorRef<MetricsCollector.Message>> collectors = new HashSet<>();
+
+	////////////////////
+	// Actor Behavior //
+	////////////////////
+
+	@Override
+	public Receive<Message> createReceive() {
+		return newReceiveBuilder()
+				.onMessage(ReceptionistListingMessage.class, this::handle)
+				.onMessage(ReportMessage.class, this::handle)
+				.build();
+	}
+
+	private Behavior<Message> handle(ReceptionistListingMessage message) {
+		this.collectors = message.getListing().getServiceInstances(MetricsCollector.metricsCollectorService);
+		return this;
+	}
+
+	private Behavior<Message> handle(ReportMessage message) {
+		if (this.collectors.isEmpty())
+			return this;
+
+		MetricsSnapshot snapshot = MetricsRegistrySingleton.get().snapshot(this.node);
+		for (ActorRef<MetricsCollector.Message> collector : this.collectors)
+			collector.tell(new MetricsCollector.SnapshotMessage(snapshot));
+		return this;
+	}
+}
@@ -0,0 +1,117 @@
+package de.ddm.actors;
+
+import akka.actor.typed.Behavior;
+import akka.actor.typed.PostStop;
+import akka.actor.typed.javadsl.AbstractBehavior;
+import akka.actor.typed.javadsl.ActorContext;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.actor.typed.javadsl.Receive;
+import de.ddm.actors.patterns.Reaper;
+import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.DomainConfigurationSingleton;
+import de.ddm.structures.InclusionDependency;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the discovered inclusion dependencies to the result file. Every result is flushed right away, so that the
+ * file is complete even if the actor system shuts down before the FinalizeMessage arrives.
+ */
+public class ResultCollector extends AbstractBehavior<ResultCollector.Message> {
+
+	////////////////////
+	// Actor Messages //
+	////////////////////
+
+	public interface Message extends AkkaSerializable {
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class ResultMessage implements Message {
+		private static final long serialVersionUID = -7070569202900845736L;
+		List<InclusionDependency> inclusionDependencies;
+	}
+
+	@NoArgsConstructor
+	public static class FinalizeMessage implements Message {
+		private static final long serialVersionUID = -6603856949941810321L;
+	}
+
+	////////////////////////
+	// Actor Construction //
+	////////////////////////
+
+	public static final String DEFAULT_NAME = "resultCollector";
+
+	public static Behavior<Message> create() {
+		return Behaviors.setup(ResultCollector::new);
+	}
+
+	private ResultCollector(ActorContext<Message> context) throws IOException {
+		super(context);
+		Reaper.watchWithDefaultReaper(this.getContext().getSelf());
+
+		File file = new File(DomainConfigurationSingleton.get().getResultCollectorOutputFileName());
+		if (file.exists() && !file.delete())
+			throw new IOException("Could not delete the old result file " + file + "!");
+		this.writer = new BufferedWriter(new FileWriter(file));
+	}
+
+	/////////////////
+	// Actor State //
+	/////////////////
+
+	private BufferedWriter writer;
+
+	private int numberOfResults = 0;
+
+	////////////////////
+	// Actor Behavior //
+	////////////////////
+
+	@Override
+	public Receive<Message> createReceive() {
+		return newReceiveBuilder()
+				.onMessage(ResultMessage.class, this::handle)
+				.onMessage(FinalizeMessage.class, this::handle)
+				.onSignal(PostStop.class, this::handle)
+				.build();
+	}
+
+	private Behavior<Message> handle(ResultMessage message) throws IOException {
+		for (InclusionDependency inclusionDependency : message.getInclusionDependencies()) {
+			this.writer.write(inclusionDependency.toString());
+			this.writer.newLine();
+		}
+		this.writer.flush();
+		this.numberOfResults += message.getInclusionDependencies().size();
+		return this;
+	}
+
+	private Behavior<Message> handle(FinalizeMessage message) throws IOException {
+		this.getContext().getLog().info("Wrote {} inclusion dependencies.", this.numberOfResults);
+		this.close();
+		return this;
+	}
+
+	private Behavior<Message> handle(PostStop signal) throws IOException {
+		this.close();
+		return this;
+	}
+
+	private void close() throws IOException {
+		if (this.writer != null) {
+			this.writer.close();
+			this.writer = null;
+		}
+	}
+}
@@ -9,14 +9,35 @@ import akka.actor.typed.javadsl.Receive;
 import akka.actor.typed.receptionist.Receptionist;
 import de.ddm.actors.patterns.LargeMessageProxy;
 import de.ddm.actors.patterns.Reaper;
+import de.ddm.metrics.MetricsRegistry;
+import de.ddm.metrics.NodeLoad;
+import de.ddm.performance.LatencyHistogram;
+import de.ddm.performance.MessageWindow;
+import de.ddm.performance.PayloadProvider;
+import de.ddm.performance.ThroughputMeter;
+import de.ddm.performance.TrafficPattern;
 import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.DomainConfigurationSingleton;
+import de.ddm.singletons.MetricsRegistrySingleton;
+import de.ddm.singletons.PayloadPoolSingleton;
 import de.ddm.singletons.SystemConfigurationSingleton;
+import de.ddm.structures.CombinationHashing;
+import de.ddm.structures.IntSets;
+import de.ddm.structures.PartitionIndex;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
@@ -61,6 +82,71 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 		byte[] data;
 	}
 
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class TrafficStartMessage implements Message {
+		private static final long serialVersionUID = 8119532467023495160L;
+		ActorRef<LargeMessageProxy.Message> masterLargeMessageProxy;
+		List<ActorRef<Message>> peers; // All registered workers, including the receiver; empty unless the pattern is ALL_TO_ALL
+		List<ActorRef<LargeMessageProxy.Message>> peerLargeMessageProxies; // The proxies of the peers in the same order
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class StreamDataMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = -1779046230853129754L;
+		ActorRef<?> sender; // The master (BROADCAST) or the sending worker (ALL_TO_ALL), which expects an acknowledgement
+		long sequence;
+		byte[] data;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class AckMessage implements Message {
+		private static final long serialVersionUID = 5567220394519833270L;
+		long sequence;
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class TaskMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = 4871934012237823549L;
+		ActorRef<Master.Message> master;
+		int taskId;
+		int dependentColumn;
+		int[] referencedColumns;
+		int[] columnIds; // The columns of the task that the worker does not hold yet
+		int[][] columnValues; // The sorted distinct values of these columns as codes of the master's shared dictionary
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PartitionTaskMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = -3150339880377164337L;
+		ActorRef<Master.Message> master;
+		int taskId;
+		int numberOfColumns;
+		int[] columnIds; // The columns that have values in the partition
+		int[][] columnValues; // The sorted distinct values of these columns in the partition
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class NaryTaskMessage implements LargeMessageProxy.LargeMessage, Message {
+		private static final long serialVersionUID = 6043987915328147322L;
+		ActorRef<Master.Message> master;
+		int taskId;
+		int[][] dependentColumns; // The dependent columns of every candidate
+		int[][] referencedColumns; // The referenced columns of every candidate
+		int[] columnIds; // The columns of the task that the worker does not hold row by row yet
+		int[][] columnCodes; // The codes of these columns row by row in the master's shared dictionary
+	}
 
 	////////////////////////
 	// Actor Construction //
@@ -69,10 +155,17 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 	public static final String DEFAULT_NAME = "worker";
 
 	public static Behavior<Message> create() {
-		return Behaviors.setup(Worker::new);
+		return create(null);
 	}
 
-	private Worker(ActorContext<Message> context) {
+	/**
+	 * @param sharedLargeMessageProxy a node-local proxy that this worker shares with other workers, or null to spawn an own one
+	 */
+	public static Behavior<Message> create(ActorRef<LargeMessageProxy.Message> sharedLargeMessageProxy) {
+		return Behaviors.setup(context -> new Worker(context, sharedLargeMessageProxy));
+	}
+
+	private Worker(ActorContext<Message> context, ActorRef<LargeMessageProxy.Message> sharedLargeMessageProxy) {
 		super(context);
 		Reaper.watchWithDefaultReaper(this.getContext().getSelf());
 
@@ -80,7 +173,9 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 				context.messageAdapter(Receptionist.Listing.class, ReceptionistListingMessage::new);
 		context.getSystem().receptionist().tell(Receptionist.subscribe(Master.masterService, listingResponseAdapter));
 
-		this.largeMessageProxy = this.getContext().spawn(LargeMessageProxy.create(this.getContext().getSelf().unsafeUpcast()), LargeMessageProxy.DEFAULT_NAME);
+		this.largeMessageProxy = sharedLargeMessageProxy != null ? sharedLargeMessageProxy :
+				this.getContext().spawn(LargeMessageProxy.create(this.getContext().getSelf().unsafeUpcast()), LargeMessageProxy.DEFAULT_NAME,
+						SystemConfigurationSingleton.get().getProxyDispatcherSelector());
 	}
 
 	/////////////////
@@ -91,12 +186,41 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 
 	private final Random random = new Random(4711);
 
-	private final int messageSizeInMB = SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInMB();
+	// All actors of the node share one pool of payloads, so that a node with many workers does not hold one pool per worker
+	private final PayloadProvider payloadProvider = !SystemConfigurationSingleton.get().isPerformanceTest() ? null : new PayloadProvider(PayloadPoolSingleton.get());
+
+	private final int messageSizeInBytes = SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInBytes();
+
+	private final TrafficPattern trafficPattern = SystemConfigurationSingleton.get().getPerformanceTestTrafficPattern();
 
 	private int numberOfMessagesSent = 0;
 
+	private MessageWindow window; // The unacknowledged messages in the PIPELINED and ALL_TO_ALL patterns, once the master started the traffic
+
+	private ActorRef<LargeMessageProxy.Message> masterLargeMessageProxy;
+
+	private final List<ActorRef<Message>> peers = new ArrayList<>();
+
+	private final List<ActorRef<LargeMessageProxy.Message>> peerLargeMessageProxies = new ArrayList<>();
+
 	private long performanceTestStartTime;
 
+	private long lastSendTime;
+
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	private final ThroughputMeter throughput = new ThroughputMeter(TimeUnit.SECONDS.toNanos(1));
+
+	private ActorRef<Master.Message> master;
+
+	private boolean requestedWork = false;
+
+	private final Int2ObjectOpenHashMap<int[]> columns = new Int2ObjectOpenHashMap<>(); // The sorted distinct values of the columns for unary tasks
+
+	private final Int2ObjectOpenHashMap<int[]> rows = new Int2ObjectOpenHashMap<>(); // The row-aligned codes of the columns for n-ary tasks
+
+	private final MetricsRegistry.Histogram taskDurations = MetricsRegistrySingleton.get().histogram("ddm_task_duration_seconds", "", TimeUnit.MICROSECONDS);
+
 	////////////////////
 	// Actor Behavior //
 	////////////////////
@@ -107,13 +231,28 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 				.onMessage(ReceptionistListingMessage.class, this::handle)
 				.onMessage(DataMessageWithLargeMessageProxy.class, this::handle)
 				.onMessage(DataMessageDirect.class, this::handle)
+				.onMessage(TrafficStartMessage.class, this::handle)
+				.onMessage(StreamDataMessage.class, this::handle)
+				.onMessage(AckMessage.class, this::handle)
+				.onMessage(TaskMessage.class, this::handle)
+				.onMessage(PartitionTaskMessage.class, this::handle)
+				.onMessage(NaryTaskMessage.class, this::handle)
 				.onMessage(ShutdownMessage.class, this::handle)
 				.build();
 	}
 
 	private Behavior<Message> handle(ReceptionistListingMessage message) {
 		message.getListing().getServiceInstances(Master.masterService)
-				.forEach(master -> master.tell(new Master.RegistrationMessage(this.getContext().getSelf(), this.largeMessageProxy)));
+				.forEach(master -> {
+					this.master = master;
+					master.tell(new Master.RegistrationMessage(this.getContext().getSelf(), this.largeMessageProxy));
+
+					// The master may be announced more than once, but the worker must not ask for its first tasks twice
+					if (!SystemConfigurationSingleton.get().isPerformanceTest() && !this.requestedWork) {
+						this.requestedWork = true;
+						master.tell(new Master.WorkRequestMessage(this.getContext().getSelf(), DomainConfigurationSingleton.get().getDiscoveryTasksPerWorker(), 0, 0, NodeLoad.measure()));
+					}
+				});
 		return this;
 	}
 
@@ -127,41 +266,221 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 		return this;
 	}
 
+	private Behavior<Message> handle(TrafficStartMessage message) {
+		this.masterLargeMessageProxy = message.getMasterLargeMessageProxy();
+
+		this.peers.clear();
+		this.peerLargeMessageProxies.clear();
+		for (int i = 0; i < message.getPeers().size(); i++) {
+			if (message.getPeers().get(i).equals(this.getContext().getSelf()))
+				continue;
+			this.peers.add(message.getPeers().get(i));
+			this.peerLargeMessageProxies.add(message.getPeerLargeMessageProxies().get(i));
+		}
+
+		if (this.window == null)
+			this.window = new MessageWindow(SystemConfigurationSingleton.get().getPerformanceTestWindowSize(), SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages());
+		this.stream();
+		return this;
+	}
+
+	private void stream() {
+		boolean toMaster = this.trafficPattern == TrafficPattern.PIPELINED;
+		while (this.window.canSend() && (toMaster || !this.peers.isEmpty())) {
+			byte[] data = this.generateDataMessage();
+			long now = System.nanoTime();
+			if (this.numberOfMessagesSent == 0) {
+				log.info("Starting performance analysis by streaming messages to {} with up to {} in flight!",
+						toMaster ? "the master" : "the other workers", SystemConfigurationSingleton.get().getPerformanceTestWindowSize());
+				this.performanceTestStartTime = now;
+				this.throughput.start(now);
+			}
+
+			long sequence = this.window.send(1, now);
+			boolean useLargeMessageProxy = SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy();
+			if (toMaster) {
+				Master.StreamDataMessage streamDataMessage = new Master.StreamDataMessage(this.getContext().getSelf(), sequence, data);
+				if (useLargeMessageProxy)
+					this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(streamDataMessage, this.masterLargeMessageProxy));
+				else
+					this.master.tell(streamDataMessage);
+			} else {
+				// The peers take turns, so that every worker sends to and receives from all others
+				int peer = (int) (sequence % this.peers.size());
+				StreamDataMessage streamDataMessage = new StreamDataMessage(this.getContext().getSelf(), sequence, data);
+				if (useLargeMessageProxy)
+					this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(streamDataMessage, this.peerLargeMessageProxies.get(peer), this.peers.get(peer).unsafeUpcast()));
+				else
+					this.peers.get(peer).tell(streamDataMessage);
+			}
+			this.numberOfMessagesSent++;
+		}
+	}
+
+	private Behavior<Message> handle(StreamDataMessage message) {
+		// The traffic pattern determines the sender's type: only the master broadcasts, all other streams come from peers
+		if (this.trafficPattern == TrafficPattern.BROADCAST) {
+			@SuppressWarnings("unchecked")
+			ActorRef<Master.Message> master = (ActorRef<Master.Message>) message.getSender();
+			master.tell(new Master.AckMessage(this.getContext().getSelf(), message.getSequence()));
+		} else {
+			@SuppressWarnings("unchecked")
+			ActorRef<Message> peer = (ActorRef<Message>) message.getSender();
+			peer.tell(new AckMessage(message.getSequence()));
+		}
+		return this;
+	}
+
+	private Behavior<Message> handle(AckMessage message) {
+		long now = System.nanoTime();
+		long latencyInNanos = this.window == null ? -1 : this.window.acknowledge(message.getSequence(), now);
+		if (latencyInNanos < 0)
+			return this;
+
+		this.latencies.record(TimeUnit.NANOSECONDS.toMicros(latencyInNanos));
+		this.throughput.record(this.messageSizeInBytes, now);
+
+		if (this.window.isComplete())
+			this.finishPerformanceTest();
+		else
+			this.stream();
+		return this;
+	}
+
+	private Behavior<Message> handle(TaskMessage message) {
+		long startTime = System.nanoTime();
+		for (int i = 0; i < message.getColumnIds().length; i++)
+			this.columns.put(message.getColumnIds()[i], message.getColumnValues()[i]);
+
+		int[] dependentValues = this.columns.get(message.getDependentColumn());
+		IntArrayList validReferencedColumns = new IntArrayList();
+		for (int referencedColumn : message.getReferencedColumns())
+			if (IntSets.isSubset(dependentValues, this.columns.get(referencedColumn)))
+				validReferencedColumns.add(referencedColumn);
+
+		message.getMaster().tell(new Master.ResultMessage(this.getContext().getSelf(), message.getTaskId(), message.getDependentColumn(),
+				validReferencedColumns.toIntArray()));
+		this.requestWork(message.getMaster(), message.getReferencedColumns().length, startTime);
+		return this;
+	}
+
+	private Behavior<Message> handle(PartitionTaskMessage message) {
+		long startTime = System.nanoTime();
+		BitSet[] candidates = PartitionIndex.validate(message.getColumnIds(), message.getColumnValues(), message.getNumberOfColumns());
+
+		long[][] referencedColumns = new long[candidates.length][];
+		for (int i = 0; i < candidates.length; i++)
+			referencedColumns[i] = candidates[i].toLongArray();
+
+		message.getMaster().tell(new Master.PartitionResultMessage(this.getContext().getSelf(), message.getTaskId(), message.getColumnIds(), referencedColumns));
+		this.requestWork(message.getMaster(), 0, startTime);
+		return this;
+	}
+
+	private Behavior<Message> handle(NaryTaskMessage message) {
+		long startTime = System.nanoTime();
+		for (int i = 0; i < message.getColumnIds().length; i++)
+			this.rows.put(message.getColumnIds()[i], message.getColumnCodes()[i]);
+
+		// Candidates of one task often share their referenced columns, so their hashes are computed only once per task
+		Map<IntArrayList, LongOpenHashSet> referencedHashes = new HashMap<>();
+		IntArrayList validCandidates = new IntArrayList();
+		for (int candidate = 0; candidate < message.getDependentColumns().length; candidate++) {
+			LongOpenHashSet hashes = referencedHashes.computeIfAbsent(IntArrayList.wrap(message.getReferencedColumns()[candidate]),
+					columns -> CombinationHashing.distinctHashes(this.rowsOf(columns.toIntArray())));
+			if (CombinationHashing.isIncluded(this.rowsOf(message.getDependentColumns()[candidate]), hashes))
+				validCandidates.add(candidate);
+		}
+
+		message.getMaster().tell(new Master.NaryResultMessage(this.getContext().getSelf(), message.getTaskId(), validCandidates.toIntArray()));
+		this.requestWork(message.getMaster(), message.getDependentColumns().length, startTime);
+		return this;
+	}
+
+	private void requestWork(ActorRef<Master.Message> master, int numberOfCandidates, long startTime) {
+		long processingTimeInNanos = System.nanoTime() - startTime;
+		this.taskDurations.record(TimeUnit.NANOSECONDS.toMicros(processingTimeInNanos));
+
+		// Partition tasks can not be resized, so they report no candidates and do not influence the task size
+		master.tell(new Master.WorkRequestMessage(this.getContext().getSelf(), 1, numberOfCandidates, processingTimeInNanos, NodeLoad.measure()));
+	}
+
+	private int[][] rowsOf(int[] columnIds) {
+		int[][] rows = new int[columnIds.length][];
+		for (int i = 0; i < columnIds.length; i++)
+			rows[i] = this.rows.get(columnIds[i]);
+		return rows;
+	}
+
 	private void handleDataMessage(ActorRef<?> sender) {
+		long now = System.nanoTime();
 		if (this.numberOfMessagesSent == 0) {
 			log.info("Starting performance analysis by sending messages to the master!");
-			this.performanceTestStartTime = System.nanoTime();
+			this.performanceTestStartTime = now;
+			this.throughput.start(now);
+		} else {
+			// The master's answer completes the round trip of our last message; the payload traveled both ways
+			this.latencies.record(TimeUnit.NANOSECONDS.toMicros(now - this.lastSendTime));
+			this.throughput.record(2L * this.messageSizeInBytes, now);
 		}
 
 		if (SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy()) {
-			sendMessageToMasterUsingLargeMessageProxy((ActorRef<LargeMessageProxy.Message>) sender);
+			sendMessageToMasterUsingLargeMessageProxy(sender.unsafeUpcast());
 		} else {
-			sendMessageToMasterDirectly((ActorRef<Master.Message>) sender);
+			sendMessageToMasterDirectly(sender.unsafeUpcast());
 		}
 		this.numberOfMessagesSent++;
 
-		if (this.numberOfMessagesSent >= SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessagesFromWorker()) {
-			long performanceTestEndTime = System.nanoTime();
-			long elapsedTimeInNanoSeconds = performanceTestEndTime - this.performanceTestStartTime;
-			log.info("Performance analysis finished! Sent {} messages (à {} MB) in {} ms.", this.numberOfMessagesSent,
-					this.messageSizeInMB, TimeUnit.MILLISECONDS.convert(elapsedTimeInNanoSeconds, TimeUnit.NANOSECONDS));
+		if (this.numberOfMessagesSent >= SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages())
+			this.finishPerformanceTest();
+	}
+
+	private void finishPerformanceTest() {
+		long performanceTestEndTime = System.nanoTime();
+		long elapsedTimeInNanoSeconds = performanceTestEndTime - this.performanceTestStartTime;
+		log.info("Performance analysis finished! Sent {} messages (à {} bytes) in {} ms.", this.numberOfMessagesSent,
+				this.messageSizeInBytes, TimeUnit.MILLISECONDS.convert(elapsedTimeInNanoSeconds, TimeUnit.NANOSECONDS));
+		log.info("Round trip latencies: p50 {} ms, p90 {} ms, p99 {} ms, p999 {} ms, max {} ms.",
+				this.latencies.getValueAtPercentile(50) / 1000.0, this.latencies.getValueAtPercentile(90) / 1000.0,
+				this.latencies.getValueAtPercentile(99) / 1000.0, this.latencies.getValueAtPercentile(99.9) / 1000.0,
+				this.latencies.getMax() / 1000.0);
+		log.info("Generating the payloads took {} ms, after {} ms for the node's shared pool.",
+				TimeUnit.NANOSECONDS.toMillis(this.payloadProvider.getGenerationTimeInNanos()),
+				TimeUnit.NANOSECONDS.toMillis(this.payloadProvider.getPoolGenerationTimeInNanos()));
+		this.reportToMaster(elapsedTimeInNanoSeconds);
+
+		// In the multi-peer patterns, the other workers may still be streaming, so the master shuts down once all of them reported
+		if (this.trafficPattern != TrafficPattern.PIPELINED && this.trafficPattern != TrafficPattern.ALL_TO_ALL)
 			this.getContext().getSystem().unsafeUpcast().tell(new Guardian.ShutdownMessage());
-		}
+	}
+
+	private void reportToMaster(long elapsedTimeInNanoSeconds) {
+		if (this.master == null || this.numberOfMessagesSent == 0)
+			return;
+
+		this.master.tell(new Master.PerformanceReportMessage(this.getContext().getSelf(), this.numberOfMessagesSent,
+				TimeUnit.NANOSECONDS.toMillis(elapsedTimeInNanoSeconds), TimeUnit.NANOSECONDS.toMillis(this.payloadProvider.getGenerationTimeInNanos()),
+				this.latencies, this.throughput.getThroughputsInMBps()));
 	}
 
 	private void sendMessageToMasterUsingLargeMessageProxy(ActorRef<LargeMessageProxy.Message> workerMessageProxy) {
-		this.getContext().getLog().info("Already sent {} messages. Sending another message to the master using the large message proxy!",
-				this.numberOfMessagesSent);
+		// Logging every message would distort the latencies of the small PING_PONG messages
+		if (this.trafficPattern != TrafficPattern.PING_PONG)
+			this.getContext().getLog().info("Already sent {} messages. Sending another message to the master using the large message proxy!",
+					this.numberOfMessagesSent);
 		byte[] data = generateDataMessage();
 
 		writePerformanceTestLogMessagesIfApplicable();
-		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(new Master.DataMessageWithLargeMessageProxy(this.largeMessageProxy, data), workerMessageProxy));
+		this.lastSendTime = System.nanoTime();
+		this.largeMessageProxy.tell(new LargeMessageProxy.SendMessage(new Master.DataMessageWithLargeMessageProxy(this.getContext().getSelf(), this.largeMessageProxy, data), workerMessageProxy));
 	}
 
 	private void sendMessageToMasterDirectly(ActorRef<Master.Message> master) {
-		this.getContext().getLog().info("Already sent {} messages. Sending another message to the master directly!", this.numberOfMessagesSent);
+		if (this.trafficPattern != TrafficPattern.PING_PONG)
+			this.getContext().getLog().info("Already sent {} messages. Sending another message to the master directly!", this.numberOfMessagesSent);
 		byte[] data = generateDataMessage();
 		writePerformanceTestLogMessagesIfApplicable();
+		this.lastSendTime = System.nanoTime();
 		master.tell(new Master.DataMessageDirect(this.getContext().getSelf(), data));
 	}
 
@@ -173,7 +492,7 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 	}
 
 	private byte[] generateDataMessage() {
-		return generateRandomByteArray(SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInMB() * 1024 * 1024);
+		return this.payloadProvider.next();
 	}
 
 	private byte[] generateRandomByteArray(final int size) {
@@ -183,6 +502,10 @@ public class Worker extends AbstractBehavior<Worker.Message> {
 	}
 
 	private Behavior<Message> handle(ShutdownMessage message) {
+		// A worker that is stopped before it finished its performance test still reports its partial results
+		if (this.numberOfMessagesSent < SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages() || (this.window != null && !this.window.isComplete()))
+			this.reportToMaster(System.nanoTime() - this.performanceTestStartTime);
+
 		// If we expect the system to still be active when the a ShutdownMessage is issued,
 		// we should propagate this ShutdownMessage to all active child actors so that they
 		// can end their protocols in a clean way. Simply stopping this actor also stops all
@@ -0,0 +1,100 @@
+package de.ddm.actors;
+
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.Behavior;
+import akka.actor.typed.Terminated;
+import akka.actor.typed.javadsl.AbstractBehavior;
+import akka.actor.typed.javadsl.ActorContext;
+import akka.actor.typed.javadsl.Behaviors;
+import akka.actor.typed.javadsl.Receive;
+import de.ddm.actors.patterns.LargeMessageProxy;
+import de.ddm.serialization.AkkaSerializable;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The parent of all workers of a node and of the LargeMessageProxies that they share. Its fixed name gives the
+ * numbered children the common path prefix /user/workers/, which a single wildcard in large-message-destinations
+ * matches, however many workers a node starts.
+ */
+public class WorkerGroup extends AbstractBehavior<WorkerGroup.Message> {
+
+	////////////////////
+	// Actor Messages //
+	////////////////////
+
+	public interface Message extends AkkaSerializable {
+	}
+
+	@NoArgsConstructor
+	public static class ShutdownMessage implements Message {
+		private static final long serialVersionUID = -2164317598815271205L;
+	}
+
+	////////////////////////
+	// Actor Construction //
+	////////////////////////
+
+	public static final String DEFAULT_NAME = "workers";
+
+	public static Behavior<Message> create(int numWorkers, int numSharedProxies) {
+		return Behaviors.setup(context -> new WorkerGroup(context, numWorkers, numSharedProxies));
+	}
+
+	private WorkerGroup(ActorContext<Message> context, int numWorkers, int numSharedProxies) {
+		super(context);
+
+		// Shared proxies have no parent, because the workers name themselves as receivers of all messages they expect
+		List<ActorRef<LargeMessageProxy.Message>> sharedProxies = new ArrayList<>();
+		for (int i = 0; i < Math.min(numSharedProxies, numWorkers); i++)
+			sharedProxies.add(context.spawn(LargeMessageProxy.create(null), LargeMessageProxy.DEFAULT_NAME + "_" + i,
+					SystemConfigurationSingleton.get().getProxyDispatcherSelector()));
+
+		for (int i = 0; i < numWorkers; i++) {
+			ActorRef<LargeMessageProxy.Message> sharedProxy = sharedProxies.isEmpty() ? null : sharedProxies.get(i % sharedProxies.size());
+			ActorRef<Worker.Message> worker = context.spawn(Worker.create(sharedProxy), Worker.DEFAULT_NAME + "_" + i,
+					SystemConfigurationSingleton.get().getWorkerDispatcherSelector());
+			context.watch(worker);
+			this.workers.add(worker);
+		}
+
+		context.getLog().info("Started {} workers with {}.", numWorkers,
+				sharedProxies.isEmpty() ? "one LargeMessageProxy each" : sharedProxies.size() + " shared LargeMessageProxies");
+	}
+
+	/////////////////
+	// Actor State //
+	/////////////////
+
+	private final Set<ActorRef<Worker.Message>> workers = new HashSet<>();
+
+	////////////////////
+	// Actor Behavior //
+	////////////////////
+
+	@Override
+	public Receive<Message> createReceive() {
+		return newReceiveBuilder()
+				.onMessage(ShutdownMessage.class, this::handle)
+				.onSignal(Terminated.class, this::handle)
+				.build();
+	}
+
+	private Behavior<Message> handle(ShutdownMessage message) {
+		for (ActorRef<Worker.Message> worker : this.workers)
+			worker.tell(new Worker.ShutdownMessage());
+		return this;
+	}
+
+	private Behavior<Message> handle(Terminated signal) {
+		this.workers.remove(signal.getRef());
+
+		// The shared proxies serve only the workers, so they stop with the last one
+		return this.workers.isEmpty() ? Behaviors.stopped() : this;
+	}
+}
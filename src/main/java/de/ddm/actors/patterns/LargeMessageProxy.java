@@ -1,7 +1,10 @@
 package de.ddm.actors.patterns;
 
+import akka.NotUsed;
+import akka.actor.Address;
 import akka.actor.typed.ActorRef;
 import akka.actor.typed.Behavior;
+import akka.actor.typed.PostStop;
 import akka.actor.typed.javadsl.AbstractBehavior;
 import akka.actor.typed.javadsl.ActorContext;
 import akka.actor.typed.javadsl.Behaviors;
@@ -9,15 +12,39 @@ import akka.actor.typed.javadsl.Receive;
 import akka.serialization.Serialization;
 import akka.serialization.SerializationExtension;
 import akka.serialization.Serializers;
+import akka.stream.SourceRef;
+import akka.stream.javadsl.Sink;
+import akka.stream.javadsl.Source;
+import akka.stream.javadsl.StreamRefs;
+import akka.util.ByteString;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import de.ddm.metrics.MetricsRegistry;
 import de.ddm.serialization.AkkaSerializable;
+import de.ddm.serialization.ByteStringJsonDeserializer;
+import de.ddm.serialization.ByteStringJsonSerializer;
+import de.ddm.serialization.CompressionCodec;
+import de.ddm.serialization.CompressionType;
+import de.ddm.singletons.MetricsRegistrySingleton;
+import de.ddm.singletons.SystemConfigurationSingleton;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
 
 public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Message> {
 
@@ -38,6 +65,11 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 		private static final long serialVersionUID = -1203695340601241430L;
 		private LargeMessage message;
 		private ActorRef<Message> receiverProxy;
+		private ActorRef<LargeMessage> receiver; // The actor behind the receiving proxy that gets the message; null for the proxy's parent
+
+		public SendMessage(LargeMessage message, ActorRef<Message> receiverProxy) {
+			this(message, receiverProxy, null);
+		}
 	}
 
 	@Getter
@@ -50,6 +82,13 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 		private int largeMessageSize;
 		private int serializerId;
 		private String manifest;
+		private int windowSize;
+		private int chunkSize;
+		private CompressionType compression; // The codec that the sender chose for this transfer
+		private boolean compressedPerChunk;
+		private int originalSize; // The size of the payload before a per-message compression
+		private boolean spilled; // The sender's decision that the receiver maps the payload to a spill file
+		private ActorRef<LargeMessage> receiver;
 	}
 
 	@Getter
@@ -66,9 +105,35 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 	@AllArgsConstructor
 	public static class BytesMessage implements Message {
 		private static final long serialVersionUID = -8435193720156121630L;
-		private byte[] bytes;
+		@JsonSerialize(using = ByteStringJsonSerializer.class)
+		@JsonDeserialize(using = ByteStringJsonDeserializer.class)
+		private ByteString bytes; // A view on the sender's serialized payload; no copy is made for a chunk
 		private int senderTransmissionKey;
 		private int receiverTransmissionKey;
+		private boolean compressed; // Per-chunk compression is skipped for chunks that would not get smaller
+	}
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class StreamConnectMessage implements Message {
+		private static final long serialVersionUID = 3318476350984107211L;
+		private SourceRef<ByteString> sourceRef;
+		private int largeMessageSize;
+		private int serializerId;
+		private String manifest;
+		private ActorRef<LargeMessage> receiver;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	private static class StreamCompletedMessage implements Message {
+		private static final long serialVersionUID = -1127539962316285409L;
+		private byte[] bytes;
+		private Throwable failure;
+		private int serializerId;
+		private String manifest;
+		private ActorRef<LargeMessage> receiver;
 	}
 
 	@Getter
@@ -78,6 +143,7 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 		private static final long serialVersionUID = 5992096322167014051L;
 		private int senderTransmissionKey;
 		private int receiverTransmissionKey;
+		private int acknowledgedChunks; // Cumulative: all chunks up to this number have been received
 	}
 
 	////////////////////////
@@ -88,6 +154,12 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 
 	public static int MAX_MESSAGE_SIZE = 100000;
 
+	private static final int COMPRESSION_SAMPLE_SIZE = 64 * 1024;
+
+	/**
+	 * @param parent the actor that gets all received messages without an explicit receiver; may be null for a proxy
+	 *               that is shared by several actors, which then always name themselves as receivers
+	 */
 	public static Behavior<Message> create(ActorRef<LargeMessage> parent) {
 		return Behaviors.setup(context -> new LargeMessageProxy(context, parent));
 	}
@@ -109,24 +181,78 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 	private final Map<Integer, SendState> pendingSends = new HashMap<>();
 	private final Map<Integer, ReceiveState> pendingReceives = new HashMap<>();
 
+	// Connected sends that still have chunks to emit; served round-robin, one chunk per transfer and turn
+	private final Deque<Integer> activeSends = new ArrayDeque<>();
+
+	// Transfers that wait for a free receive slot if the number of concurrent receives is limited
+	private final Queue<ConnectMessage> waitingReceives = new ArrayDeque<>();
+
+	private long inFlightBytes = 0;
+
 	private final Serialization serialization = SerializationExtension.get(this.getContext().getSystem());
 
+	private final int windowSize = Math.max(1, SystemConfigurationSingleton.get().getLargeMessageProxyWindowSize());
+
+	private final long inFlightBudget = Math.max(1, SystemConfigurationSingleton.get().getLargeMessageProxyInFlightBudgetInMB()) * 1024L * 1024L;
+
+	private final int maxConcurrentReceives = SystemConfigurationSingleton.get().getLargeMessageProxyMaxConcurrentReceives();
+
+	private final boolean useStreamRefs = SystemConfigurationSingleton.get().isLargeMessageProxyUseStreamRefs();
+
+	private final CompressionType compression = SystemConfigurationSingleton.get().getLargeMessageProxyCompression();
+	private final CompressionCodec compressionCodec = this.compression.createCodec(SystemConfigurationSingleton.get().getLargeMessageProxyCompressionLevel());
+	private final boolean compressPerChunk = SystemConfigurationSingleton.get().isLargeMessageProxyCompressPerChunk();
+	private final double compressionMaxRatio = SystemConfigurationSingleton.get().getLargeMessageProxyCompressionMaxRatio();
+
+	private final long spillThreshold = SystemConfigurationSingleton.get().getLargeMessageProxySpillThresholdInMB() * 1024L * 1024L;
+
+	// The metrics are shared by all proxies of this JVM
+	private final MetricsRegistry.Counter sendingTransfers = MetricsRegistrySingleton.get().upDownCounter("ddm_proxy_pending_transfers", "direction=\"send\"");
+	private final MetricsRegistry.Counter receivingTransfers = MetricsRegistrySingleton.get().upDownCounter("ddm_proxy_pending_transfers", "direction=\"receive\"");
+	private final MetricsRegistry.Counter waitingTransfers = MetricsRegistrySingleton.get().upDownCounter("ddm_proxy_waiting_receives", "");
+	private final MetricsRegistry.Counter inFlightBytesOfNode = MetricsRegistrySingleton.get().upDownCounter("ddm_proxy_in_flight_bytes", "");
+	private final MetricsRegistry.Counter sentBytes = MetricsRegistrySingleton.get().counter("ddm_proxy_bytes_total", "direction=\"send\"");
+	private final MetricsRegistry.Counter receivedBytes = MetricsRegistrySingleton.get().counter("ddm_proxy_bytes_total", "direction=\"receive\"");
+
 	@Data
 	@AllArgsConstructor
 	private static class SendState {
-		private byte[] bytes;
+		private ByteString bytes;
+		private int chunkSize;
 		private int offset;
 		private ActorRef<Message> receiverProxy;
+		private int receiverTransmissionKey;
+		private int sentChunks;
+		private int acknowledgedChunks;
+		private CompressionCodec chunkCodec;
+		private MetricsRegistry.Counter pendingBytesToReceiver; // The bytes that all proxies of this JVM still have to deliver to the receiver's node
+
+		private int numberOfChunks() {
+			return Math.max(1, (this.bytes.length() + this.chunkSize - 1) / this.chunkSize);
+		}
+
+		private long bytesOf(int chunks) {
+			return Math.min((long) chunks * this.chunkSize, this.bytes.length());
+		}
 	}
 
 	@Data
 	@AllArgsConstructor
 	private static class ReceiveState {
-		private byte[] bytes;
+		private ByteBuffer buffer; // Either a heap buffer or, for large payloads, a memory-mapped spill file
+		private int size;
 		private int offset;
 		private ActorRef<Message> senderProxy;
 		private int serializerId;
 		private String manifest;
+		private int receivedChunks;
+		private int ackInterval;
+		private int chunkSize;
+		private CompressionCodec codec;
+		private boolean compressedPerChunk;
+		private int originalSize;
+		private boolean spilled;
+		private ActorRef<LargeMessage> receiver;
 	}
 
 	////////////////////
@@ -141,6 +267,9 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 				.onMessage(ConnectAckMessage.class, this::handle)
 				.onMessage(BytesMessage.class, this::handle)
 				.onMessage(BytesAckMessage.class, this::handle)
+				.onMessage(StreamConnectMessage.class, this::handle)
+				.onMessage(StreamCompletedMessage.class, this::handle)
+				.onSignal(PostStop.class, this::handle)
 				.build();
 	}
 
@@ -151,69 +280,352 @@ public class LargeMessageProxy extends AbstractBehavior<LargeMessageProxy.Messag
 		int serializerId = this.serialization.findSerializerFor(largeMessage).identifier();
 		String manifest = Serializers.manifestFor(this.serialization.findSerializerFor(largeMessage), largeMessage);
 
+		if (this.useStreamRefs) {
+			this.sendAsStream(bytes, serializerId, manifest, message.getReceiverProxy(), message.getReceiver());
+			return this;
+		}
+
+		CompressionCodec codec = this.isWorthCompressing(bytes) ? this.compressionCodec : null;
+		CompressionType compression = codec != null ? this.compression : CompressionType.NONE;
+
+		// The sender decides whether the receiver spills the payload to a mapped file, so that both sides agree even if
+		// their thresholds differ; a spilled payload is always compressed per chunk, because the receiver would otherwise
+		// have to copy the entire compressed payload back onto the heap to decompress it at once
+		boolean spilled = this.spillThreshold > 0 && bytes.length >= this.spillThreshold;
+		boolean compressPerChunk = this.compressPerChunk || spilled;
+
+		ByteString payload = ByteString.fromArrayUnsafe(bytes);
+		if (codec != null && !compressPerChunk)
+			payload = codec.compress(bytes, 0, bytes.length);
+
 		int senderTransmissionKey = this.messageCounter++;
-		this.pendingSends.put(senderTransmissionKey, new SendState(bytes, 0, message.getReceiverProxy()));
+		MetricsRegistry.Counter pendingBytesToReceiver = pendingBytesCounterOf(message.getReceiverProxy().path().address());
+		pendingBytesToReceiver.add(payload.length());
+		this.pendingSends.put(senderTransmissionKey, new SendState(payload, MAX_MESSAGE_SIZE, 0, message.getReceiverProxy(), -1, 0, 0,
+				compressPerChunk ? codec : null, pendingBytesToReceiver));
+		this.sendingTransfers.increment();
+
+		message.getReceiverProxy().tell(new ConnectMessage(senderTransmissionKey, this.getContext().getSelf(), payload.length(), serializerId, manifest,
+				this.windowSize, MAX_MESSAGE_SIZE, compression, compressPerChunk, bytes.length, spilled, message.getReceiver()));
+		return this;
+	}
+
+	private boolean isWorthCompressing(byte[] bytes) {
+		if (this.compressionCodec == null || bytes.length == 0)
+			return false;
+
+		// Cost model: compress a sample from the middle of the payload, because its head is mostly serialization framing
+		int sampleLength = Math.min(bytes.length, COMPRESSION_SAMPLE_SIZE);
+		int sampleOffset = (bytes.length - sampleLength) / 2;
+		ByteString sample = this.compressionCodec.compress(bytes, sampleOffset, sampleLength);
+
+		return (double) sample.length() / sampleLength <= this.compressionMaxRatio;
+	}
+
+	private void sendAsStream(byte[] bytes, int serializerId, String manifest, ActorRef<Message> receiverProxy, ActorRef<LargeMessage> receiver) {
+		ByteString payload = ByteString.fromArrayUnsafe(bytes);
+		int chunkSize = MAX_MESSAGE_SIZE;
+		int numberOfChunks = Math.max(1, (bytes.length + chunkSize - 1) / chunkSize);
+
+		// The chunks are slices of the payload that the stream emits only on demand of the remote receiver, so they
+		// are counted as sent only when they are emitted
+		Source<ByteString, NotUsed> chunks = Source.range(0, numberOfChunks - 1)
+				.map(i -> {
+					ByteString chunk = payload.slice(i * chunkSize, Math.min((i + 1) * chunkSize, bytes.length));
+					this.sentBytes.add(chunk.length());
+					return chunk;
+				});
+		SourceRef<ByteString> sourceRef = chunks.runWith(StreamRefs.sourceRef(), this.getContext().getSystem());
+
+		receiverProxy.tell(new StreamConnectMessage(sourceRef, bytes.length, serializerId, manifest, receiver));
+	}
+
+	private Behavior<Message> handle(StreamConnectMessage message) {
+		CompletionStage<byte[]> payload = message.getSourceRef().getSource()
+				.runWith(Sink.fold(ByteString.emptyByteString(), (ByteString received, ByteString chunk) -> received.concat(chunk)), this.getContext().getSystem())
+				.thenApply(ByteString::toArrayUnsafe);
+
+		this.getContext().pipeToSelf(payload, (bytes, failure) -> new StreamCompletedMessage(bytes, failure, message.getSerializerId(), message.getManifest(), message.getReceiver()));
+		return this;
+	}
+
+	private Behavior<Message> handle(StreamCompletedMessage message) {
+		if (message.getFailure() != null) {
+			this.getContext().getLog().error("Receiving a large message stream failed!", message.getFailure());
+			return this;
+		}
+
+		this.receivedBytes.add(message.getBytes().length);
+
+		LargeMessage largeMessage;
+		try {
+			largeMessage = (LargeMessage) this.serialization.deserialize(message.getBytes(), message.getSerializerId(), message.getManifest()).get();
+		} catch (Exception e) {
+			this.getContext().getLog().error("Dropping a received large message with manifest {}, because it could not be deserialized!", message.getManifest(), e);
+			return this;
+		}
 
-		message.getReceiverProxy().tell(new ConnectMessage(senderTransmissionKey, this.getContext().getSelf(), bytes.length, serializerId, manifest));
+		this.deliver(largeMessage, message.getReceiver(), message.getBytes().length);
 		return this;
 	}
 
 	private Behavior<Message> handle(ConnectMessage message) {
+		if (this.maxConcurrentReceives > 0 && this.pendingReceives.size() >= this.maxConcurrentReceives) {
+			this.waitingReceives.add(message);
+			this.waitingTransfers.increment();
+			return this;
+		}
+
+		this.accept(message);
+		return this;
+	}
+
+	private void accept(ConnectMessage message) {
+		// Acknowledge every half window so that the sender can refill its window before it runs dry
+		int ackInterval = Math.max(1, message.getWindowSize() / 2);
+
+		// The codec is created from the sender's choice, because the decoding does not depend on the compression level
+		CompressionCodec codec = message.getCompression().createCodec(0);
+
+		// The receive buffer is allocated with the first chunk, because a single-chunk payload needs no buffer at all
 		int receiverTransmissionKey = this.messageCounter++;
-		this.pendingReceives.put(receiverTransmissionKey, new ReceiveState(new byte[message.getLargeMessageSize()], 0, message.getSenderProxy(), message.getSerializerId(), message.getManifest()));
+		this.pendingReceives.put(receiverTransmissionKey, new ReceiveState(null, message.getLargeMessageSize(), 0, message.getSenderProxy(), message.getSerializerId(), message.getManifest(), 0, ackInterval,
+				message.getChunkSize(), codec, message.isCompressedPerChunk(), message.getOriginalSize(), message.isSpilled(), message.getReceiver()));
+		this.receivingTransfers.increment();
 
 		message.getSenderProxy().tell(new ConnectAckMessage(message.getSenderTransmissionKey(), receiverTransmissionKey));
-		return this;
 	}
 
 	private Behavior<Message> handle(ConnectAckMessage message) {
-		return this.sendNext(message.getSenderTransmissionKey(), message.getReceiverTransmissionKey());
+		SendState state = this.pendingSends.get(message.getSenderTransmissionKey());
+		state.setReceiverTransmissionKey(message.getReceiverTransmissionKey());
+
+		this.activeSends.addLast(message.getSenderTransmissionKey());
+		this.emit();
+		return this;
 	}
 
 	private Behavior<Message> handle(BytesAckMessage message) {
-		return this.sendNext(message.getSenderTransmissionKey(), message.getReceiverTransmissionKey());
+		SendState state = this.pendingSends.get(message.getSenderTransmissionKey());
+
+		if (message.getAcknowledgedChunks() > state.getAcknowledgedChunks()) {
+			long acknowledgedBytes = state.bytesOf(message.getAcknowledgedChunks()) - state.bytesOf(state.getAcknowledgedChunks());
+			this.inFlightBytes -= acknowledgedBytes;
+			this.inFlightBytesOfNode.add(-acknowledgedBytes);
+			state.getPendingBytesToReceiver().add(-acknowledgedBytes);
+			state.setAcknowledgedChunks(message.getAcknowledgedChunks());
+		}
+
+		if (state.getAcknowledgedChunks() == state.numberOfChunks()) {
+			this.pendingSends.remove(message.getSenderTransmissionKey());
+			this.sendingTransfers.add(-1);
+		}
+
+		this.emit();
+		return this;
+	}
+
+	private void emit() {
+		// Serve the active transfers round-robin until a full turn could not emit a single chunk anymore
+		int blockedTransfers = 0;
+		while (!this.activeSends.isEmpty() && blockedTransfers < this.activeSends.size()) {
+			int senderTransmissionKey = this.activeSends.pollFirst();
+			SendState state = this.pendingSends.get(senderTransmissionKey);
+
+			if (this.canEmit(state)) {
+				this.emitNext(senderTransmissionKey, state);
+				blockedTransfers = 0;
+			} else {
+				blockedTransfers++;
+			}
+
+			if (state.getSentChunks() < state.numberOfChunks())
+				this.activeSends.addLast(senderTransmissionKey);
+		}
 	}
 
-	private Behavior<Message> sendNext(int senderTransmissionKey, int receiverTransmissionKey) {
-		ActorRef<Message> receiverProxy = this.pendingSends.get(senderTransmissionKey).getReceiverProxy();
+	private boolean canEmit(SendState state) {
+		if (state.getSentChunks() - state.getAcknowledgedChunks() >= this.windowSize)
+			return false;
+
+		// A chunk that exceeds the budget on its own may still go if nothing else is in flight
+		long nextChunkSize = state.bytesOf(state.getSentChunks() + 1) - state.bytesOf(state.getSentChunks());
+		return this.inFlightBytes == 0 || this.inFlightBytes + nextChunkSize <= this.inFlightBudget;
+	}
 
-		SendState state = this.pendingSends.get(senderTransmissionKey);
+	private void emitNext(int senderTransmissionKey, SendState state) {
+		ByteString bytes = state.getBytes();
 
-		byte[] bytes = state.getBytes();
 		int startOffset = state.getOffset();
-		int endOffset = Math.min(startOffset + MAX_MESSAGE_SIZE, bytes.length);
+		int endOffset = Math.min(startOffset + state.getChunkSize(), bytes.length());
 
-		byte[] nextBytes = Arrays.copyOfRange(bytes, startOffset, endOffset);
+		ByteString nextBytes = bytes.slice(startOffset, endOffset);
 		state.setOffset(endOffset);
+		state.setSentChunks(state.getSentChunks() + 1);
+		this.inFlightBytes += nextBytes.length();
+		this.inFlightBytesOfNode.add(nextBytes.length());
+
+		if (state.getChunkCodec() != null) {
+			ByteString compressedBytes = state.getChunkCodec().compress(bytes.toArrayUnsafe(), startOffset, endOffset - startOffset);
+			if (compressedBytes.length() < nextBytes.length()) {
+				state.getReceiverProxy().tell(new BytesMessage(compressedBytes, senderTransmissionKey, state.getReceiverTransmissionKey(), true));
+				this.sentBytes.add(compressedBytes.length());
+				return;
+			}
+		}
 
-		if (endOffset == bytes.length)
-			this.pendingSends.remove(senderTransmissionKey);
-
-		receiverProxy.tell(new BytesMessage(nextBytes, senderTransmissionKey, receiverTransmissionKey));
-		return this;
+		state.getReceiverProxy().tell(new BytesMessage(nextBytes, senderTransmissionKey, state.getReceiverTransmissionKey(), false));
+		this.sentBytes.add(nextBytes.length());
 	}
 
 	private Behavior<Message> handle(BytesMessage message) {
 		ReceiveState receiveState = this.pendingReceives.get(message.getReceiverTransmissionKey());
 
-		byte[] bytes = receiveState.getBytes();
+		ByteString chunk = message.getBytes();
 		int offset = receiveState.getOffset();
+		int chunkLength = message.isCompressed() ? Math.min(receiveState.getChunkSize(), receiveState.getSize() - offset) : chunk.length();
+
+		if (!message.isCompressed() && offset == 0 && chunk.length() == receiveState.getSize()) {
+			// The entire payload came in one chunk, which already wraps a complete array
+			receiveState.setBuffer(ByteBuffer.wrap(chunk.toArrayUnsafe()));
+		} else {
+			if (receiveState.getBuffer() == null)
+				receiveState.setBuffer(this.allocateReceiveBuffer(receiveState.getSize(), receiveState.isSpilled()));
+
+			// Decode the chunk directly into its final position in the receive buffer
+			ByteBuffer target = receiveState.getBuffer().duplicate();
+			target.position(offset);
+
+			if (message.isCompressed())
+				this.decompress(chunk, receiveState.getCodec(), target, chunkLength);
+			else
+				chunk.copyToBuffer(target);
+		}
+
+		receiveState.setOffset(offset + chunkLength);
+		receiveState.setReceivedChunks(receiveState.getReceivedChunks() + 1);
 
-		System.arraycopy(message.getBytes(), 0, bytes, offset, message.getBytes().length);
+		boolean complete = receiveState.getOffset() == receiveState.getSize();
 
-		receiveState.setOffset(offset + message.getBytes().length);
+		// The final ack releases the sender's in-flight budget for this transfer
+		if (complete || receiveState.getReceivedChunks() % receiveState.getAckInterval() == 0)
+			receiveState.getSenderProxy().tell(new BytesAckMessage(message.getSenderTransmissionKey(), message.getReceiverTransmissionKey(), receiveState.getReceivedChunks()));
 
-		if (receiveState.getOffset() != bytes.length) {
-			receiveState.getSenderProxy().tell(new BytesAckMessage(message.getSenderTransmissionKey(), message.getReceiverTransmissionKey()));
+		if (!complete)
 			return this;
-		}
 
 		this.pendingReceives.remove(message.getReceiverTransmissionKey());
+		this.receivingTransfers.add(-1);
+
+		if (!this.waitingReceives.isEmpty()) {
+			this.waitingTransfers.add(-1);
+			this.accept(this.waitingReceives.poll());
+		}
 
-		LargeMessage largeMessage = (LargeMessage) this.serialization.deserialize(bytes, receiveState.getSerializerId(), receiveState.getManifest()).get();
+		// A payload that cannot be deserialized is dropped, so that it does not fail the proxy and its other transfers
+		LargeMessage largeMessage;
+		try {
+			largeMessage = this.deserialize(receiveState);
+		} catch (Exception e) {
+			this.getContext().getLog().error("Dropping a received large message with manifest {}, because it could not be deserialized!", receiveState.getManifest(), e);
+			return this;
+		}
 
-		this.parent.tell(largeMessage);
+		this.deliver(largeMessage, receiveState.getReceiver(), receiveState.getOriginalSize());
 		return this;
 	}
 
-}
\ No newline at end of file
+	private void deliver(LargeMessage largeMessage, ActorRef<LargeMessage> receiver, int size) {
+		ActorRef<LargeMessage> target = receiver != null ? receiver : this.parent;
+		if (target == null) {
+			this.getContext().getLog().warn("Dropping a received {}, because neither the sender named a receiver nor this proxy has a parent!",
+					largeMessage.getClass().getSimpleName());
+			return;
+		}
+
+		MetricsRegistrySingleton.get().counter("ddm_received_bytes_total", "actor=\"" + MetricsRegistry.actorTypeOf(target.path()) + "\"").add(size);
+		target.tell(largeMessage);
+	}
+
+	private Behavior<Message> handle(PostStop signal) {
+		// Transfers that a stopped proxy leaves unfinished must not count as pending forever
+		this.sendingTransfers.add(-this.pendingSends.size());
+		this.receivingTransfers.add(-this.pendingReceives.size());
+		this.waitingTransfers.add(-this.waitingReceives.size());
+		this.inFlightBytesOfNode.add(-this.inFlightBytes);
+		this.pendingSends.values().forEach(state -> state.getPendingBytesToReceiver().add(-(state.getBytes().length() - state.bytesOf(state.getAcknowledgedChunks()))));
+		return this;
+	}
+
+	private static MetricsRegistry.Counter pendingBytesCounterOf(Address address) {
+		return MetricsRegistrySingleton.get().upDownCounter("ddm_proxy_pending_bytes", "destination=\"" + address + "\"");
+	}
+
+	/**
+	 * @return the bytes that the proxies of this JVM accepted for the node with the given address but that the node has
+	 * not acknowledged yet, i.e. the bytes still queued for or in flight to the node; transfers via stream refs are
+	 * paced by the receiver and not counted
+	 */
+	public static long pendingBytesTo(Address address) {
+		return pendingBytesCounterOf(address).get();
+	}
+
+	private ByteBuffer allocateReceiveBuffer(int size, boolean spilled) {
+		if (spilled) {
+			try {
+				Path file = Files.createTempFile("ddm-large-message-", ".bin");
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE)) {
+					// The mapping stays valid after the channel has been closed and the file has been deleted
+					return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+				}
+			} catch (IOException e) {
+				this.getContext().getLog().warn("Could not map a spill file for a large message of {} bytes; receiving it on the heap instead.", size, e);
+			}
+		}
+		return ByteBuffer.allocate(size);
+	}
+
+	private void decompress(ByteString chunk, CompressionCodec codec, ByteBuffer target, int length) {
+		byte[] compressedBytes = chunk.toArrayUnsafe();
+
+		if (target.hasArray()) {
+			codec.decompress(compressedBytes, 0, compressedBytes.length, target.array(), target.arrayOffset() + target.position(), length);
+		} else {
+			// Mapped buffers have no backing array, so the chunk needs to be decompressed into a temporary one first
+			byte[] bytes = new byte[length];
+			codec.decompress(compressedBytes, 0, compressedBytes.length, bytes, 0, length);
+			target.put(bytes);
+		}
+	}
+
+	private LargeMessage deserialize(ReceiveState receiveState) {
+		ByteBuffer buffer = receiveState.getBuffer();
+
+		if (receiveState.getCodec() != null && !receiveState.isCompressedPerChunk()) {
+			byte[] compressedBytes = toArray(buffer);
+			byte[] bytes = new byte[receiveState.getOriginalSize()];
+			receiveState.getCodec().decompress(compressedBytes, 0, compressedBytes.length, bytes, 0, bytes.length);
+			return (LargeMessage) this.serialization.deserialize(bytes, receiveState.getSerializerId(), receiveState.getManifest()).get();
+		}
+
+		if (buffer.hasArray())
+			return (LargeMessage) this.serialization.deserialize(buffer.array(), receiveState.getSerializerId(), receiveState.getManifest()).get();
+
+		// A ByteBufferSerializer reads the payload straight from the mapped file; other serializers copy it to the heap
+		try {
+			return (LargeMessage) this.serialization.deserializeByteBuffer(buffer, receiveState.getSerializerId(), receiveState.getManifest());
+		} catch (NotSerializableException e) {
+			throw new IllegalStateException("Could not deserialize a large message with manifest " + receiveState.getManifest(), e);
+		}
+	}
+
+	private static byte[] toArray(ByteBuffer buffer) {
+		if (buffer.hasArray())
+			return buffer.array();
+
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return bytes;
+	}
+
+}
@@ -3,6 +3,9 @@ package de.ddm.configuration;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
+import de.ddm.performance.PayloadMode;
+import de.ddm.performance.TrafficPattern;
+import de.ddm.serialization.CompressionType;
 import de.ddm.singletons.InputConfigurationSingleton;
 import de.ddm.singletons.SystemConfigurationSingleton;
 
@@ -10,6 +13,8 @@ public abstract class Command {
 
 	abstract int getDefaultPort();
 
+	abstract int getDefaultNumberOfWorkers();
+
 	@Parameter(names = {"-h", "--host"}, description = "This machine's host name that we use to bind this application against", required = false)
 	String hostname = SystemConfigurationSingleton.get().getHost();
 
@@ -22,17 +27,95 @@ public abstract class Command {
 	@Parameter(names = {"-kb", "--runningInKubernetes"}, description = "The application is running in Kubernetes", required = false, arity = 1)
 	boolean runningInKubernetes = SystemConfigurationSingleton.get().isRunningInKubernetes();
 
+	@Parameter(names = {"-pt", "--performanceTest"}, description = "Run the messaging performance test (true) or read and process the input data (false)", required = false, arity = 1)
+	boolean performanceTest = SystemConfigurationSingleton.get().isPerformanceTest();
+
 	@Parameter(names = {"-pts", "--performanceTestMessageSize"}, description = "Performance test message size in Megabytes", required = false)
 	int performanceTestMessageSizeInMB = SystemConfigurationSingleton.get().getPerformanceTestMessageSizeInMB();
 
+	@Parameter(names = {"-ptc", "--performanceTestMessageCountWorker"}, description = "Number of messages that every sender sends in the performance test: each worker, or the master with -ptt BROADCAST", required = false)
+	int performanceTestNumberOfMessages = SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessages();
+
+	@Parameter(names = {"-ptt", "--performanceTestTrafficPattern"}, description = "Traffic pattern of the performance test (same on master and workers): ECHO, PIPELINED (workers to master), BROADCAST (master to all workers), ALL_TO_ALL (among workers) or PING_PONG (small messages, see -ptpb)", required = false)
+	TrafficPattern performanceTestTrafficPattern = SystemConfigurationSingleton.get().getPerformanceTestTrafficPattern();
+
+	@Parameter(names = {"-ptw", "--performanceTestWindowSize"}, description = "Number of unacknowledged messages that every sender keeps in flight with -ptt PIPELINED, BROADCAST or ALL_TO_ALL", required = false)
+	int performanceTestWindowSize = SystemConfigurationSingleton.get().getPerformanceTestWindowSize();
+
+	@Parameter(names = {"-ptpb", "--performanceTestPingPongMessageSizeInBytes"}, description = "Message size in bytes with -ptt PING_PONG, which ignores -pts", required = false)
+	int performanceTestPingPongMessageSizeInBytes = SystemConfigurationSingleton.get().getPerformanceTestPingPongMessageSizeInBytes();
+
 	@Parameter(names = {"-lp", "--performanceTestUseLargeMessageProxy"}, description = "Use the LargeMessageProxy pattern for performance tests", required = false, arity = 1)
 	boolean performanceTestUseLargeMessageProxy = SystemConfigurationSingleton.get().isPerformanceTestUseLargeMessageProxy();
 
+	@Parameter(names = {"-lpsr", "--largeMessageProxyUseStreamRefs"}, description = "Let the LargeMessageProxy transfer payloads as backpressured Akka Streams SourceRefs instead of its own chunk protocol; this mode ignores -lpc, -lpst and -lpr", required = false, arity = 1)
+	boolean largeMessageProxyUseStreamRefs = SystemConfigurationSingleton.get().isLargeMessageProxyUseStreamRefs();
+
+	@Parameter(names = {"-lpc", "--largeMessageProxyCompression"}, description = "Codec that the LargeMessageProxy uses to compress its chunked transfers", required = false)
+	CompressionType largeMessageProxyCompression = SystemConfigurationSingleton.get().getLargeMessageProxyCompression();
+
+	@Parameter(names = {"-lpcl", "--largeMessageProxyCompressionLevel"}, description = "Compression level (1-9) of the DEFLATE codec", required = false)
+	int largeMessageProxyCompressionLevel = SystemConfigurationSingleton.get().getLargeMessageProxyCompressionLevel();
+
+	@Parameter(names = {"-lpcc", "--largeMessageProxyCompressPerChunk"}, description = "Compress every chunk on its own (true) or the entire payload before chunking (false)", required = false, arity = 1)
+	boolean largeMessageProxyCompressPerChunk = SystemConfigurationSingleton.get().isLargeMessageProxyCompressPerChunk();
+
+	@Parameter(names = {"-lpcr", "--largeMessageProxyCompressionMaxRatio"}, description = "Payloads whose sample does not compress to at least this ratio (compressed/original) are sent uncompressed", required = false)
+	double largeMessageProxyCompressionMaxRatio = SystemConfigurationSingleton.get().getLargeMessageProxyCompressionMaxRatio();
+
+	@Parameter(names = {"-lpst", "--largeMessageProxySpillThreshold"}, description = "Payloads of at least this size in MB that this node sends are received into memory-mapped temp files instead of the heap; 0 disables spilling", required = false)
+	int largeMessageProxySpillThresholdInMB = SystemConfigurationSingleton.get().getLargeMessageProxySpillThresholdInMB();
+
 	@Parameter(names = {"-ptls", "--performanceTestLogMessageSizeInBytes"}, description = "Performance test log message size in bytes", required = false)
 	int performanceTestLogMessageSizeInBytes = SystemConfigurationSingleton.get().getPerformanceTestLogMessageSizeInBytes();
 
+	@Parameter(names = {"-pte", "--performanceTestPayloadEntropy"}, description = "Fraction (0-1) of random bytes in the performance test payloads; lower values make the payloads more compressible", required = false)
+	double performanceTestPayloadEntropy = SystemConfigurationSingleton.get().getPerformanceTestPayloadEntropy();
+
+	@Parameter(names = {"-ptm", "--performanceTestPayloadMode"}, description = "Content of the performance test payloads: RANDOM (see -pte), COMPRESSIBLE (text-like) or CONSTANT", required = false)
+	PayloadMode performanceTestPayloadMode = SystemConfigurationSingleton.get().getPerformanceTestPayloadMode();
+
+	@Parameter(names = {"-ptp", "--performanceTestPayloadPoolSize"}, description = "Number of payloads that are pre-generated at startup and reused for all messages; 0 derives every payload from one pre-generated seed block", required = false)
+	int performanceTestPayloadPoolSize = SystemConfigurationSingleton.get().getPerformanceTestPayloadPoolSize();
+
+	@Parameter(names = {"-lpw", "--largeMessageProxyWindowSize"}, description = "Number of chunks that the LargeMessageProxy keeps in flight per transfer before it waits for an acknowledgement", required = false)
+	int largeMessageProxyWindowSize = SystemConfigurationSingleton.get().getLargeMessageProxyWindowSize();
+
+	@Parameter(names = {"-lpb", "--largeMessageProxyInFlightBudget"}, description = "Maximum number of sent but not yet acknowledged bytes in MB that the LargeMessageProxy allows over all of its transfers", required = false)
+	int largeMessageProxyInFlightBudgetInMB = SystemConfigurationSingleton.get().getLargeMessageProxyInFlightBudgetInMB();
+
+	@Parameter(names = {"-lpr", "--largeMessageProxyMaxConcurrentReceives"}, description = "Maximum number of transfers that the LargeMessageProxy receives at the same time (further transfers wait for a free slot); 0 means unlimited", required = false)
+	int largeMessageProxyMaxConcurrentReceives = SystemConfigurationSingleton.get().getLargeMessageProxyMaxConcurrentReceives();
+
+	@Parameter(names = {"-wdt", "--workerDispatcherType"}, description = "Executor of the workers: DEFAULT (shared), FORK_JOIN, THREAD_POOL or PINNED (one dedicated thread per worker)", required = false)
+	DispatcherType workerDispatcherType = SystemConfigurationSingleton.get().getWorkerDispatcherType();
+
+	@Parameter(names = {"-wdps", "--workerDispatcherPoolSize"}, description = "Number of threads of the workers' executor (FORK_JOIN and THREAD_POOL only)", required = false)
+	int workerDispatcherPoolSize = SystemConfigurationSingleton.get().getWorkerDispatcherPoolSize();
+
+	@Parameter(names = {"-wdtp", "--workerDispatcherThroughput"}, description = "Number of messages that a worker processes before it yields its thread", required = false)
+	int workerDispatcherThroughput = SystemConfigurationSingleton.get().getWorkerDispatcherThroughput();
+
+	@Parameter(names = {"-pdt", "--proxyDispatcherType"}, description = "Executor of the LargeMessageProxies, which (de)serialize large payloads: DEFAULT (shared), FORK_JOIN, THREAD_POOL or PINNED (one dedicated thread per proxy)", required = false)
+	DispatcherType proxyDispatcherType = SystemConfigurationSingleton.get().getProxyDispatcherType();
+
+	@Parameter(names = {"-pdps", "--proxyDispatcherPoolSize"}, description = "Number of threads of the LargeMessageProxies' executor (FORK_JOIN and THREAD_POOL only)", required = false)
+	int proxyDispatcherPoolSize = SystemConfigurationSingleton.get().getProxyDispatcherPoolSize();
+
+	@Parameter(names = {"-pdtp", "--proxyDispatcherThroughput"}, description = "Number of messages that a LargeMessageProxy processes before it yields its thread", required = false)
+	int proxyDispatcherThroughput = SystemConfigurationSingleton.get().getProxyDispatcherThroughput();
+
 	@Parameter(names = {"-w", "--numWorkers"}, description = "The number of workers (indexers/validators) to start locally; should be at least one if the algorithm is started standalone (otherwise there are no workers to run the discovery)", required = false)
-	int numWorkers = 1;
+	int numWorkers = this.getDefaultNumberOfWorkers();
+
+	@Parameter(names = {"-m", "--metrics"}, description = "Collect metrics of the mailboxes, LargeMessageProxies, workers and the JVM and ship them to the master, which exports them for Prometheus (see -mep and -mf)", required = false, arity = 1)
+	boolean metrics = SystemConfigurationSingleton.get().isMetrics();
+
+	@Parameter(names = {"-mi", "--metricsInterval"}, description = "Interval in seconds at which every node ships its metrics and the master exports them", required = false)
+	int metricsIntervalInSeconds = SystemConfigurationSingleton.get().getMetricsIntervalInSeconds();
+
+	@Parameter(names = {"-slp", "--sharedLargeMessageProxies"}, description = "The number of LargeMessageProxies that the local workers share round-robin; 0 gives every worker its own proxy", required = false)
+	int sharedLargeMessageProxies = SystemConfigurationSingleton.get().getSharedLargeMessageProxies();
 
 
 	public static void applyOn(String[] args) {
@@ -4,6 +4,8 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import de.ddm.singletons.InputConfigurationSingleton;
 import de.ddm.singletons.SystemConfigurationSingleton;
+import de.ddm.structures.DictionaryMode;
+import de.ddm.structures.DiscoveryStrategy;
 
 import java.nio.charset.Charset;
 
@@ -15,12 +17,44 @@ public class CommandMaster extends Command {
 		return SystemConfiguration.DEFAULT_MASTER_PORT;
 	}
 
+	@Override
+	int getDefaultNumberOfWorkers() {
+		return 0;
+	}
+
 	@Parameter(names = {"-sp", "--startPaused"}, description = "Wait for some console input to start the discovery; useful, if we want to wait manually until all ActorSystems in the cluster are started (e.g. to avoid work stealing effects in performance evaluations)", required = false, arity = 1)
 	boolean startPaused = SystemConfigurationSingleton.get().isStartPaused();
 
 	@Parameter(names = {"-hm", "--hardMode"}, description = "Solve the hard version of the task", required = false, arity = 1)
 	boolean hardMode = SystemConfigurationSingleton.get().isHardMode();
 
+	@Parameter(names = {"-dm", "--dictionaryMode"}, description = "Encode the values of all columns with one SHARED dictionary or with one dictionary PER_COLUMN", required = false)
+	DictionaryMode dictionaryMode = SystemConfigurationSingleton.get().getDictionaryMode();
+
+	@Parameter(names = {"-ds", "--discoveryStrategy"}, description = "Validate inclusion dependency candidates pairwise on full value sets (PAIRS) or on hash partitions of the values that are spread across the workers (PARTITIONED)", required = false)
+	DiscoveryStrategy discoveryStrategy = SystemConfigurationSingleton.get().getDiscoveryStrategy();
+
+	@Parameter(names = {"-cp", "--candidatePruning"}, description = "Reject inclusion dependency candidates on cardinality, range and Bloom filter sketches of their columns before validating them exactly", required = false, arity = 1)
+	boolean candidatePruning = SystemConfigurationSingleton.get().isCandidatePruning();
+
+	@Parameter(names = {"-lb", "--loadBalancing"}, description = "Serve the workers with the lowest load (CPU, heap, pending proxy bytes, processing time) first and give overloaded workers only one task at a time", required = false, arity = 1)
+	boolean loadBalancing = SystemConfigurationSingleton.get().isLoadBalancing();
+
+	@Parameter(names = {"-mdt", "--masterDispatcherType"}, description = "Executor of the master: DEFAULT (shared), FORK_JOIN, THREAD_POOL or PINNED (one dedicated thread)", required = false)
+	DispatcherType masterDispatcherType = SystemConfigurationSingleton.get().getMasterDispatcherType();
+
+	@Parameter(names = {"-mdps", "--masterDispatcherPoolSize"}, description = "Number of threads of the master's executor (FORK_JOIN and THREAD_POOL only)", required = false)
+	int masterDispatcherPoolSize = SystemConfigurationSingleton.get().getMasterDispatcherPoolSize();
+
+	@Parameter(names = {"-mdtp", "--masterDispatcherThroughput"}, description = "Number of messages that the master processes before it yields its thread", required = false)
+	int masterDispatcherThroughput = SystemConfigurationSingleton.get().getMasterDispatcherThroughput();
+
+	@Parameter(names = {"-mep", "--metricsEndpointPort"}, description = "Port of the HTTP endpoint that serves the cluster's metrics to Prometheus at /metrics; 0 disables the endpoint", required = false)
+	int metricsPort = SystemConfigurationSingleton.get().getMetricsPort();
+
+	@Parameter(names = {"-mf", "--metricsFile"}, description = "File to which the cluster's metrics are written in the Prometheus text format; empty disables the file", required = false)
+	String metricsFile = SystemConfigurationSingleton.get().getMetricsFile();
+
 	@Parameter(names = {"-ip", "--inputPath"}, description = "Input path for the input data; all files in this folder are considered", required = false, arity = 1)
 	String inputPath = InputConfigurationSingleton.get().getInputPath();
 
@@ -44,4 +78,7 @@ public class CommandMaster extends Command {
 
 	@Parameter(names = {"-viw", "--valueIgnoreLeadingWhitespace"}, description = "Ignore i.e. delete all whitespaces preceding any read value", required = false, arity = 1)
 	boolean attributeIgnoreLeadingWhitespace = InputConfigurationSingleton.get().isValueIgnoreLeadingWhitespace();
+
+	@Parameter(names = {"-irp", "--inputReaderParallelism"}, description = "Maximum number of byte ranges that every input file is split into and read in parallel on the input reader dispatcher", required = false)
+	int inputReaderParallelism = InputConfigurationSingleton.get().getInputReaderParallelism();
 }
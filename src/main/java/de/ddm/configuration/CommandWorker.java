@@ -12,13 +12,15 @@ public class CommandWorker extends Command {
 		return SystemConfiguration.DEFAULT_WORKER_PORT;
 	}
 
+	@Override
+	int getDefaultNumberOfWorkers() {
+		return SystemConfigurationSingleton.get().getNumWorkers();
+	}
+
 	@Parameter(names = {"-mh", "--masterhost"}, description = "The host name or IP of the master", required = false)
 	String masterhost = SystemConfigurationSingleton.get().getHost();
 
 	@Parameter(names = {"-mp", "--masterport"}, description = "The port of the master", required = false)
 	int masterport = SystemConfiguration.DEFAULT_MASTER_PORT;
 
-	@Parameter(names = {"-ptc", "--performanceTestMessageCountWorker"}, description = "Number of messages that will be send in performance test from a worker to the master", required = false)
-	int performanceTestNumberOfMessagesFromWorker = SystemConfigurationSingleton.get().getPerformanceTestNumberOfMessagesFromWorker();
-
 }
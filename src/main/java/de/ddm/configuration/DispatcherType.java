@@ -0,0 +1,51 @@
+package de.ddm.configuration;
+
+import akka.actor.typed.DispatcherSelector;
+
+/**
+ * The executor that runs the actors of one role, i.e. the master, the workers, or the LargeMessageProxies.
+ */
+public enum DispatcherType {
+
+	DEFAULT, // Share Akka's default dispatcher with all other actors; pool size and throughput are ignored
+	FORK_JOIN, // A work-stealing pool with the given parallelism
+	THREAD_POOL, // A fixed pool with the given number of threads
+	PINNED; // One dedicated thread per actor; the pool size is ignored
+
+	/**
+	 * @return the HOCON definition of a dispatcher with the given name in the akka section, or an empty string for DEFAULT
+	 */
+	public String toConfig(String name, int poolSize, int throughput) {
+		switch (this) {
+			case FORK_JOIN:
+				return "akka." + name + " {\n" +
+						"  type = Dispatcher\n" +
+						"  executor = \"fork-join-executor\"\n" +
+						"  fork-join-executor.parallelism-min = " + poolSize + "\n" +
+						"  fork-join-executor.parallelism-factor = 1.0\n" +
+						"  fork-join-executor.parallelism-max = " + poolSize + "\n" +
+						"  throughput = " + throughput + "\n" +
+						"}\n";
+			case THREAD_POOL:
+				return "akka." + name + " {\n" +
+						"  type = Dispatcher\n" +
+						"  executor = \"thread-pool-executor\"\n" +
+						"  thread-pool-executor.fixed-pool-size = " + poolSize + "\n" +
+						"  throughput = " + throughput + "\n" +
+						"}\n";
+			case PINNED:
+				return "akka." + name + " {\n" +
+						"  type = PinnedDispatcher\n" +
+						"  executor = \"thread-pool-executor\"\n" +
+						"  thread-pool-executor.allow-core-timeout = off\n" +
+						"  throughput = " + throughput + "\n" +
+						"}\n";
+			default:
+				return "";
+		}
+	}
+
+	public DispatcherSelector toSelector(String name) {
+		return this == DEFAULT ? DispatcherSelector.defaultDispatcher() : DispatcherSelector.fromConfig("akka." + name);
+	}
+}
@@ -7,6 +7,28 @@ public class DomainConfiguration {
 
 	private final int inputReaderBatchSize = 10000;
 
+	private final int discoveryTaskSize = 16; // The number of candidates per task until a worker's speed is known
+
+	private final int discoveryMaxTaskSize = 1024;
+
+	private final int discoveryTargetTaskTimeInMillis = 200; // The time that every task should take on the worker that gets it
+
+	private final int discoveryTaskTimeoutInSeconds = 60; // The time after which the task of a lost or stuck worker is given to another worker; doubles with every attempt
+
+	private final int discoveryWorkerlessTimeoutInSeconds = 300; // The time that the discovery waits for a new worker after it lost all of its workers, before it fails
+
+	private final int discoveryTasksPerWorker = 2; // The tasks that every worker requests at once, so that it never idles while its next task is on the way
+
+	private final int discoveryPartitionSize = 256 * 1024; // The number of values per partition of the PARTITIONED strategy, so that the partitions follow the data and not the workers that registered early
+
+	private final double loadBalancingMinHeapHeadroom = 0.1; // Workers on nodes with less free heap get only one task at a time
+
+	private final int bloomFilterSize = 8192; // The number of bits of every column's Bloom filter for candidate pruning; a multiple of 64
+
+	private final int bloomFilterHashFunctions = 2; // Few hash functions keep the filters sparse, which lets more bits reject candidates
+
 	private final String resultCollectorOutputFileName = "results.txt";
 
+	private final String performanceReportOutputFileName = "performance-report.csv";
+
 }
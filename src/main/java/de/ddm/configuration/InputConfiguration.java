@@ -5,7 +5,8 @@ import com.opencsv.CSVParserBuilder;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.enums.CSVReaderNullFieldIndicator;
-import com.opencsv.exceptions.CsvValidationException;
+import de.ddm.io.MappedCsvReader;
+import de.ddm.io.ParallelCsvReader;
 import lombok.Data;
 
 import java.io.BufferedReader;
@@ -14,6 +15,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.concurrent.Executor;
 
 @Data
 public class InputConfiguration {
@@ -26,6 +28,7 @@ public class InputConfiguration {
 	private char valueEscape = '\\';
 	private boolean valueStrictQuotes = false;
 	private boolean valueIgnoreLeadingWhitespace = false;
+	private int inputReaderParallelism = Runtime.getRuntime().availableProcessors();
 
 	public void update(CommandMaster commandMaster) {
 		this.inputPath = commandMaster.inputPath;
@@ -36,12 +39,29 @@ public class InputConfiguration {
 		this.valueEscape = commandMaster.attributeEscape;
 		this.valueStrictQuotes = commandMaster.attributeStrictQuotes;
 		this.valueIgnoreLeadingWhitespace = commandMaster.attributeIgnoreLeadingWhitespace;
+		this.inputReaderParallelism = commandMaster.inputReaderParallelism;
 	}
 
 	public File[] getInputFiles() {
 		return new File(this.inputPath).listFiles();
 	}
 
+	public MappedCsvReader createMappedCsvReader(File inputFile) throws IOException {
+		return new MappedCsvReader(inputFile, this);
+	}
+
+	public MappedCsvReader createMappedCsvReader(File inputFile, long start, long end) throws IOException {
+		return new MappedCsvReader(inputFile, this, start, end, MappedCsvReader.DEFAULT_WINDOW_SIZE);
+	}
+
+	public ParallelCsvReader createParallelCsvReader(File inputFile, Executor executor) {
+		return new ParallelCsvReader(inputFile, this, executor);
+	}
+
+	/**
+	 * Creates an OpenCSV reader for the input file; it parses like the MappedCsvReader, but is considerably slower and
+	 * remains only as a reference implementation.
+	 */
 	public CSVReader createCSVReader(File inputFile) throws IOException {
 		CSVParser parser = new CSVParserBuilder()
 				.withSeparator(this.valueSeparator)
@@ -56,11 +76,11 @@ public class InputConfiguration {
 		return new CSVReaderBuilder(buffer).withCSVParser(parser).build();
 	}
 
-	public String[] getHeader(File inputFile) throws IOException, CsvValidationException {
-		CSVReader reader = this.createCSVReader(inputFile);
-
-		String[] line = reader.readNext();
-		reader.close();
+	public String[] getHeader(File inputFile) throws IOException {
+		String[] line;
+		try (MappedCsvReader reader = this.createMappedCsvReader(inputFile)) {
+			line = reader.readNext();
+		}
 
 		if (!this.fileHasHeader)
 			for (int i = 0; i < line.length; i++)
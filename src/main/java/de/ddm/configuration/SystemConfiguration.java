@@ -1,7 +1,14 @@
 package de.ddm.configuration;
 
+import akka.actor.typed.DispatcherSelector;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import de.ddm.metrics.InstrumentedMailbox;
+import de.ddm.performance.PayloadMode;
+import de.ddm.performance.TrafficPattern;
+import de.ddm.serialization.CompressionType;
+import de.ddm.structures.DictionaryMode;
+import de.ddm.structures.DiscoveryStrategy;
 import lombok.Data;
 
 import java.net.InetAddress;
@@ -13,6 +20,11 @@ public class SystemConfiguration {
 	public static final String MASTER_ROLE = "master";
 	public static final String WORKER_ROLE = "worker";
 
+	public static final String MASTER_DISPATCHER = "master-dispatcher";
+	public static final String WORKER_DISPATCHER = "worker-dispatcher";
+	public static final String PROXY_DISPATCHER = "proxy-dispatcher";
+	public static final String INPUT_READER_DISPATCHER = "input-reader-dispatcher"; // Configured in the application.conf
+
 	public static final int DEFAULT_MASTER_PORT = 7877;
 	public static final int DEFAULT_WORKER_PORT = 7879;
 
@@ -32,16 +44,90 @@ public class SystemConfiguration {
 
 	private boolean hardMode = false;					// Solve the hard version of the task
 
+	private DiscoveryStrategy discoveryStrategy = DiscoveryStrategy.PAIRS; // Validate candidates pairwise on full value sets or on hash partitions of the values
+
+	private boolean candidatePruning = true; // Reject inclusion dependency candidates on cardinality, range and Bloom filter sketches before validating them
+
+	private boolean loadBalancing = true; // Serve the least loaded workers first and give overloaded workers only one task at a time
+
+	private DictionaryMode dictionaryMode = DictionaryMode.SHARED; // Encode the values of all columns with one shared dictionary or with one dictionary per column
+
 	private boolean runningInKubernetes = false;        // The application is running in Kubernetes
 
-	private int performanceTestNumberOfMessagesFromWorker = 100; // The number of messages to send in performance tests from a worker instance to the master
+	private int numWorkers = Runtime.getRuntime().availableProcessors(); // The number of workers that a worker node starts; a master node starts none unless -w says otherwise
+
+	private int sharedLargeMessageProxies = 0; // The number of LargeMessageProxies that the workers of a node share round-robin; 0 gives every worker its own proxy
+
+	private boolean performanceTest = true;             // Run the messaging performance test instead of reading and processing the input data
+
+	private int performanceTestNumberOfMessages = 100; // The number of messages that every sender sends in performance tests: each worker, or the master in a broadcast
+
+	private TrafficPattern performanceTestTrafficPattern = TrafficPattern.ECHO; // The pattern in which the master and the workers exchange messages in performance tests
+
+	private int performanceTestWindowSize = 8; // The number of unacknowledged messages that every sender keeps in flight in the PIPELINED, BROADCAST and ALL_TO_ALL patterns
+
+	private int performanceTestPingPongMessageSizeInBytes = 64; // The size of each message in PING_PONG performance tests in Byte
 
 	private int performanceTestMessageSizeInMB = 10; // The size of each message in performance tests in MB
 
 	private boolean performanceTestUseLargeMessageProxy = true; // Use the LargeMessageProxy pattern for performance tests
 
+	private boolean largeMessageProxyUseStreamRefs = false; // Let the LargeMessageProxy transfer payloads as backpressured StreamRefs instead of its own chunk protocol
+
+	private CompressionType largeMessageProxyCompression = CompressionType.NONE; // The codec that the LargeMessageProxy uses to compress transfers
+
+	private int largeMessageProxyCompressionLevel = 1; // The compression level of the DEFLATE codec (1-9)
+
+	private boolean largeMessageProxyCompressPerChunk = true; // Compress every chunk on its own instead of the entire payload before chunking
+
+	private double largeMessageProxyCompressionMaxRatio = 0.9; // Payloads whose sample does not compress to at least this ratio are sent uncompressed
+
+	private int largeMessageProxySpillThresholdInMB = 0; // Payloads of at least this size in MB that this node sends are received into memory-mapped temp files instead of the heap; 0 disables spilling
+
 	private int performanceTestLogMessageSizeInBytes = 0; // The size of log messages that are written for test purposes in performance tests in Byte
 
+	private double performanceTestPayloadEntropy = 1.0; // The fraction of random bytes in the payloads of performance tests; lower values make the payloads more compressible
+
+	private PayloadMode performanceTestPayloadMode = PayloadMode.RANDOM; // The content of the payloads of performance tests
+
+	private int performanceTestPayloadPoolSize = 2; // The number of pre-generated payloads that performance tests reuse; 0 derives every payload from one pre-generated seed block
+
+	private int largeMessageProxyWindowSize = 16; // The number of chunks that the LargeMessageProxy keeps in flight per transfer
+
+	private int largeMessageProxyInFlightBudgetInMB = 32; // The number of sent but not yet acknowledged bytes that the LargeMessageProxy allows over all transfers in MB
+
+	private int largeMessageProxyMaxConcurrentReceives = 0; // The number of transfers that the LargeMessageProxy receives at the same time; 0 means unlimited
+
+	private DispatcherType masterDispatcherType = DispatcherType.PINNED; // The executor of the master, which only coordinates and should never wait behind other actors
+
+	private int masterDispatcherPoolSize = 1; // The number of threads of the master's executor
+
+	private int masterDispatcherThroughput = 1; // The number of messages that the master processes before it yields its thread
+
+	private DispatcherType workerDispatcherType = DispatcherType.THREAD_POOL; // The executor of the CPU-heavy workers
+
+	private int workerDispatcherPoolSize = Runtime.getRuntime().availableProcessors(); // The number of threads of the workers' executor
+
+	private int workerDispatcherThroughput = 1; // The number of messages that a worker processes before it yields its thread
+
+	private DispatcherType proxyDispatcherType = DispatcherType.THREAD_POOL; // The executor of the LargeMessageProxies, which serialize and deserialize large payloads
+
+	private int proxyDispatcherPoolSize = 4; // The number of threads of the LargeMessageProxies' executor
+
+	private int proxyDispatcherThroughput = 1; // The number of messages that a LargeMessageProxy processes before it yields its thread
+
+	private boolean metrics = false; // Instrument the mailboxes, proxies, workers and the JVM and ship the metrics of every node to the master
+
+	private int metricsIntervalInSeconds = 5; // The interval at which every node ships its metrics and the master exports them
+
+	private int metricsPort = 9095; // The port of the master's Prometheus endpoint; 0 disables the endpoint
+
+	private String metricsFile = ""; // The file to which the master writes the metrics in the Prometheus text format; empty disables the file
+
+	public int getPerformanceTestMessageSizeInBytes() {
+		return this.performanceTestTrafficPattern == TrafficPattern.PING_PONG ? this.performanceTestPingPongMessageSizeInBytes : this.performanceTestMessageSizeInMB * 1024 * 1024;
+	}
+
 	private static String getDefaultHost() {
 		try {
 			return InetAddress.getLocalHost().getHostAddress();
@@ -59,10 +145,46 @@ public class SystemConfiguration {
 		this.masterPort = commandMaster.port;
 		this.startPaused = commandMaster.startPaused;
 		this.hardMode = commandMaster.hardMode;
+		this.dictionaryMode = commandMaster.dictionaryMode;
+		this.discoveryStrategy = commandMaster.discoveryStrategy;
+		this.candidatePruning = commandMaster.candidatePruning;
+		this.loadBalancing = commandMaster.loadBalancing;
+		this.masterDispatcherType = commandMaster.masterDispatcherType;
+		this.masterDispatcherPoolSize = commandMaster.masterDispatcherPoolSize;
+		this.masterDispatcherThroughput = commandMaster.masterDispatcherThroughput;
 		this.runningInKubernetes = commandMaster.runningInKubernetes;
 		this.performanceTestMessageSizeInMB = commandMaster.performanceTestMessageSizeInMB;
+		this.performanceTestNumberOfMessages = commandMaster.performanceTestNumberOfMessages;
+		this.performanceTestTrafficPattern = commandMaster.performanceTestTrafficPattern;
+		this.performanceTestWindowSize = commandMaster.performanceTestWindowSize;
+		this.performanceTestPingPongMessageSizeInBytes = commandMaster.performanceTestPingPongMessageSizeInBytes;
 		this.performanceTestUseLargeMessageProxy = commandMaster.performanceTestUseLargeMessageProxy;
+		this.performanceTest = commandMaster.performanceTest;
+		this.largeMessageProxyUseStreamRefs = commandMaster.largeMessageProxyUseStreamRefs;
+		this.largeMessageProxyCompression = commandMaster.largeMessageProxyCompression;
+		this.largeMessageProxyCompressionLevel = commandMaster.largeMessageProxyCompressionLevel;
+		this.largeMessageProxyCompressPerChunk = commandMaster.largeMessageProxyCompressPerChunk;
+		this.largeMessageProxyCompressionMaxRatio = commandMaster.largeMessageProxyCompressionMaxRatio;
+		this.largeMessageProxySpillThresholdInMB = commandMaster.largeMessageProxySpillThresholdInMB;
 		this.performanceTestLogMessageSizeInBytes = commandMaster.performanceTestLogMessageSizeInBytes;
+		this.performanceTestPayloadEntropy = commandMaster.performanceTestPayloadEntropy;
+		this.performanceTestPayloadMode = commandMaster.performanceTestPayloadMode;
+		this.performanceTestPayloadPoolSize = commandMaster.performanceTestPayloadPoolSize;
+		this.largeMessageProxyWindowSize = commandMaster.largeMessageProxyWindowSize;
+		this.largeMessageProxyInFlightBudgetInMB = commandMaster.largeMessageProxyInFlightBudgetInMB;
+		this.largeMessageProxyMaxConcurrentReceives = commandMaster.largeMessageProxyMaxConcurrentReceives;
+		this.workerDispatcherType = commandMaster.workerDispatcherType;
+		this.workerDispatcherPoolSize = commandMaster.workerDispatcherPoolSize;
+		this.workerDispatcherThroughput = commandMaster.workerDispatcherThroughput;
+		this.proxyDispatcherType = commandMaster.proxyDispatcherType;
+		this.proxyDispatcherPoolSize = commandMaster.proxyDispatcherPoolSize;
+		this.proxyDispatcherThroughput = commandMaster.proxyDispatcherThroughput;
+		this.numWorkers = commandMaster.numWorkers;
+		this.sharedLargeMessageProxies = commandMaster.sharedLargeMessageProxies;
+		this.metrics = commandMaster.metrics;
+		this.metricsIntervalInSeconds = commandMaster.metricsIntervalInSeconds;
+		this.metricsPort = commandMaster.metricsPort;
+		this.metricsFile = commandMaster.metricsFile;
 	}
 
 	public void update(CommandWorker commandWorker) {
@@ -74,9 +196,35 @@ public class SystemConfiguration {
 		this.masterPort = commandWorker.masterport;
 		this.runningInKubernetes = commandWorker.runningInKubernetes;
 		this.performanceTestMessageSizeInMB = commandWorker.performanceTestMessageSizeInMB;
-		this.performanceTestNumberOfMessagesFromWorker = commandWorker.performanceTestNumberOfMessagesFromWorker;
+		this.performanceTestNumberOfMessages = commandWorker.performanceTestNumberOfMessages;
+		this.performanceTestTrafficPattern = commandWorker.performanceTestTrafficPattern;
+		this.performanceTestWindowSize = commandWorker.performanceTestWindowSize;
+		this.performanceTestPingPongMessageSizeInBytes = commandWorker.performanceTestPingPongMessageSizeInBytes;
 		this.performanceTestUseLargeMessageProxy = commandWorker.performanceTestUseLargeMessageProxy;
+		this.performanceTest = commandWorker.performanceTest;
+		this.largeMessageProxyUseStreamRefs = commandWorker.largeMessageProxyUseStreamRefs;
+		this.largeMessageProxyCompression = commandWorker.largeMessageProxyCompression;
+		this.largeMessageProxyCompressionLevel = commandWorker.largeMessageProxyCompressionLevel;
+		this.largeMessageProxyCompressPerChunk = commandWorker.largeMessageProxyCompressPerChunk;
+		this.largeMessageProxyCompressionMaxRatio = commandWorker.largeMessageProxyCompressionMaxRatio;
+		this.largeMessageProxySpillThresholdInMB = commandWorker.largeMessageProxySpillThresholdInMB;
 		this.performanceTestLogMessageSizeInBytes = commandWorker.performanceTestLogMessageSizeInBytes;
+		this.performanceTestPayloadEntropy = commandWorker.performanceTestPayloadEntropy;
+		this.performanceTestPayloadMode = commandWorker.performanceTestPayloadMode;
+		this.performanceTestPayloadPoolSize = commandWorker.performanceTestPayloadPoolSize;
+		this.largeMessageProxyWindowSize = commandWorker.largeMessageProxyWindowSize;
+		this.largeMessageProxyInFlightBudgetInMB = commandWorker.largeMessageProxyInFlightBudgetInMB;
+		this.largeMessageProxyMaxConcurrentReceives = commandWorker.largeMessageProxyMaxConcurrentReceives;
+		this.workerDispatcherType = commandWorker.workerDispatcherType;
+		this.workerDispatcherPoolSize = commandWorker.workerDispatcherPoolSize;
+		this.workerDispatcherThroughput = commandWorker.workerDispatcherThroughput;
+		this.proxyDispatcherType = commandWorker.proxyDispatcherType;
+		this.proxyDispatcherPoolSize = commandWorker.proxyDispatcherPoolSize;
+		this.proxyDispatcherThroughput = commandWorker.proxyDispatcherThroughput;
+		this.numWorkers = commandWorker.numWorkers;
+		this.sharedLargeMessageProxies = commandWorker.sharedLargeMessageProxies;
+		this.metrics = commandWorker.metrics;
+		this.metricsIntervalInSeconds = commandWorker.metricsIntervalInSeconds;
 	}
 
 	public Config toAkkaConfig() {
@@ -87,7 +235,9 @@ public class SystemConfiguration {
 								"akka.remote.artery.bind.hostname = \"" + this.ipAddress + "\"\n" +
 										"akka.remote.artery.bind.port = " + this.port + "\n" : "") +
 				"akka.cluster.roles = [" + this.role + "]\n" +
-				"akka.cluster.seed-nodes = [\"akka://" + this.actorSystemName + "@" + this.masterHost + ":" + this.masterPort + "\"]")
+				"akka.cluster.seed-nodes = [\"akka://" + this.actorSystemName + "@" + this.masterHost + ":" + this.masterPort + "\"]\n" +
+				this.toDispatcherConfig() +
+				this.toMetricsConfig())
 				.withFallback(ConfigFactory.load("application"));
 	}
 
@@ -96,7 +246,34 @@ public class SystemConfiguration {
 				"akka.remote.artery.canonical.hostname = \"" + this.host + "\"\n" +
 				"akka.remote.artery.canonical.port = " + this.port + "\n" +
 						"akka.coordinated-shutdown.exit-jvm = off\n" +
-				"akka.cluster.roles = [" + this.role + "]")
+				"akka.cluster.roles = [" + this.role + "]\n" +
+				this.toDispatcherConfig())
 				.withFallback(ConfigFactory.load("application"));
 	}
+
+	private String toDispatcherConfig() {
+		return this.masterDispatcherType.toConfig(MASTER_DISPATCHER, this.masterDispatcherPoolSize, this.masterDispatcherThroughput) +
+				this.workerDispatcherType.toConfig(WORKER_DISPATCHER, this.workerDispatcherPoolSize, this.workerDispatcherThroughput) +
+				this.proxyDispatcherType.toConfig(PROXY_DISPATCHER, this.proxyDispatcherPoolSize, this.proxyDispatcherThroughput);
+	}
+
+	private String toMetricsConfig() {
+		return this.metrics ? "akka.actor.default-mailbox.mailbox-type = \"" + InstrumentedMailbox.class.getName() + "\"\n" : "";
+	}
+
+	public DispatcherSelector getMasterDispatcherSelector() {
+		return this.masterDispatcherType.toSelector(MASTER_DISPATCHER);
+	}
+
+	public DispatcherSelector getWorkerDispatcherSelector() {
+		return this.workerDispatcherType.toSelector(WORKER_DISPATCHER);
+	}
+
+	public DispatcherSelector getProxyDispatcherSelector() {
+		return this.proxyDispatcherType.toSelector(PROXY_DISPATCHER);
+	}
+
+	public DispatcherSelector getInputReaderDispatcherSelector() {
+		return DispatcherSelector.fromConfig("akka." + INPUT_READER_DISPATCHER);
+	}
 }
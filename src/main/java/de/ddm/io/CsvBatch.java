@@ -0,0 +1,19 @@
+package de.ddm.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A batch of records that were read from one range of a file. Ordering the batches by range and batch index restores
+ * the order of the records in the file.
+ */
+@Getter
+@AllArgsConstructor
+public class CsvBatch {
+	private final int rangeIndex;
+	private final int batchIndex;
+	private final boolean lastOfRange;
+	private final List<String[]> records;
+}
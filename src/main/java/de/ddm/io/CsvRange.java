@@ -0,0 +1,12 @@
+package de.ddm.io;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CsvRange {
+	private final int index;
+	private final long start; // A record boundary
+	private final long end; // The records that start before this position belong to the range
+}
@@ -0,0 +1,315 @@
+package de.ddm.io;
+
+import de.ddm.configuration.InputConfiguration;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A CSV reader that parses memory-mapped input files directly on their bytes. It follows the rules of OpenCSV's
+ * CSVParser with the settings of the InputConfiguration (separator, quote, escape, strict quotes, ignore leading
+ * whitespace, empty unquoted values as null), but it avoids OpenCSV's per-line Strings and per-value StringBuilders:
+ * every value is decoded once from a reusable byte buffer.
+ * <p>
+ * A reader can be restricted to a byte range of its file. It then reads all records that start within the range, and
+ * the last of them may end behind the range. The range must start at a record boundary.
+ * <p>
+ * The separator, quote and escape characters must be single bytes in the input's charset (e.g. ASCII characters in
+ * UTF-8 or ISO-8859-1).
+ */
+public class MappedCsvReader implements Closeable {
+
+	public static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	private final File file;
+	private final FileChannel channel;
+	private final long fileSize;
+	private final long end;
+	private final int windowSize;
+
+	private final Charset charset;
+	private final byte separator;
+	private final byte quote;
+	private final byte escape;
+	private final boolean hasQuote;
+	private final boolean hasEscape;
+	private final boolean strictQuotes;
+	private final boolean ignoreLeadingWhitespace;
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private long position;
+
+	// The parser reads the window through a small heap copy, because an array access is much cheaper than a get() on
+	// the mapped buffer; the block's bounds are positions in the window
+	private final byte[] block = new byte[BLOCK_SIZE];
+	private int blockStart = 0;
+	private int blockEnd = 0;
+
+	private byte[] value = new byte[256];
+	private int valueLength = 0;
+	private String[] values = new String[16];
+	private int numValues = 0;
+
+	public MappedCsvReader(File file, InputConfiguration inputConfiguration) throws IOException {
+		this(file, inputConfiguration, 0, Long.MAX_VALUE, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * @param start the position of the first record to read; must be a record boundary
+	 * @param end   records that start at or behind this position are not read
+	 * @param windowSize the number of bytes that are mapped at once; must be larger than the largest record
+	 */
+	public MappedCsvReader(File file, InputConfiguration inputConfiguration, long start, long end, int windowSize) throws IOException {
+		this.file = file;
+		this.charset = inputConfiguration.getCharset();
+		this.separator = this.toByte(inputConfiguration.getValueSeparator());
+		this.quote = this.toByte(inputConfiguration.getValueQuote());
+		this.escape = this.toByte(inputConfiguration.getValueEscape());
+		this.hasQuote = inputConfiguration.getValueQuote() != '\0';
+		this.hasEscape = inputConfiguration.getValueEscape() != '\0';
+		this.strictQuotes = inputConfiguration.isValueStrictQuotes();
+		this.ignoreLeadingWhitespace = inputConfiguration.isValueIgnoreLeadingWhitespace();
+
+		this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		this.fileSize = this.channel.size();
+		this.end = Math.min(end, this.fileSize);
+		this.windowSize = windowSize;
+		this.position = start;
+
+		if (this.position < this.end)
+			this.map(this.position);
+	}
+
+	private byte toByte(char character) {
+		byte[] bytes = String.valueOf(character).getBytes(this.charset);
+		if (bytes.length != 1 || bytes[0] != (byte) character)
+			throw new IllegalArgumentException("The character '" + character + "' is not a single byte in " + this.charset + "; use an ASCII compatible charset.");
+		return bytes[0];
+	}
+
+	private void map(long start) throws IOException {
+		this.windowStart = start;
+		this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(this.windowSize, this.fileSize - start));
+		this.blockStart = 0;
+		this.blockEnd = 0;
+	}
+
+	/**
+	 * @return the values of the next record or null if the reader's range is exhausted
+	 */
+	public String[] readNext() throws IOException {
+		if (this.position >= this.end)
+			return null;
+
+		if (!this.parseRecord()) {
+			// The record continues behind the mapped window, so we move the window to the record's start and parse it again
+			if (this.windowStart == this.position)
+				throw new IOException("The record at position " + this.position + " in " + this.file + " is larger than " + this.windowSize + " bytes.");
+			this.map(this.position);
+			if (!this.parseRecord())
+				throw new IOException("The record at position " + this.position + " in " + this.file + " is larger than " + this.windowSize + " bytes.");
+		}
+		return Arrays.copyOf(this.values, this.numValues);
+	}
+
+	/**
+	 * @return the next at most batchSize records; an empty list if the reader's range is exhausted
+	 */
+	public List<String[]> readBatch(int batchSize) throws IOException {
+		List<String[]> batch = new ArrayList<>(batchSize);
+		String[] record;
+		while (batch.size() < batchSize && (record = this.readNext()) != null)
+			batch.add(record);
+		return batch;
+	}
+
+	/**
+	 * Parses the record at the current position into the values array and advances the position behind the record.
+	 *
+	 * @return false if the record continues behind the mapped window; the position is not changed then
+	 */
+	private boolean parseRecord() throws IOException {
+		int limit = this.window.limit();
+		boolean windowEndsFile = this.windowStart + limit == this.fileSize;
+
+		int i = (int) (this.position - this.windowStart);
+		int lineStart = i;
+		boolean inQuotes = false;
+		boolean inField = false;
+		boolean fromQuotedField = false;
+
+		this.numValues = 0;
+		this.valueLength = 0;
+
+		while (true) {
+			if (i >= limit) {
+				if (!windowEndsFile)
+					return false;
+				if (inQuotes)
+					throw new IOException("Unterminated quoted value at the end of " + this.file + ".");
+				this.addValue(fromQuotedField);
+				this.position = this.windowStart + i;
+				return true;
+			}
+
+			// Every special character needs to see its successor on the same line, which might not be mapped yet
+			if (i + 1 >= limit && !windowEndsFile)
+				return false;
+
+			byte c = this.byteAt(i);
+
+			if (c == '\n' || c == '\r') {
+				int next = (c == '\r' && i + 1 < limit && this.byteAt(i + 1) == '\n') ? i + 2 : i + 1;
+				if (inQuotes) {
+					// Quoted values may span several lines, which OpenCSV joins with a line feed
+					this.append((byte) '\n');
+					i = next;
+					lineStart = next;
+					continue;
+				}
+				this.addValue(fromQuotedField);
+				this.position = this.windowStart + next;
+				return true;
+			}
+
+			if (this.hasEscape && c == this.escape) {
+				if (!this.strictQuotes)
+					inField = true;
+				if ((inQuotes || inField) && this.hasNext(i, limit) && this.isEscapable(this.byteAt(i + 1))) {
+					this.append(this.byteAt(i + 1));
+					i += 2;
+				} else {
+					i++;
+				}
+				continue;
+			}
+
+			if (this.hasQuote && c == this.quote) {
+				if ((inQuotes || inField) && this.hasNext(i, limit) && this.byteAt(i + 1) == this.quote) {
+					this.append(this.quote);
+					i += 2;
+				} else {
+					inQuotes = !inQuotes;
+					if (this.valueLength == 0)
+						fromQuotedField = true;
+
+					// A quote within an unquoted value is kept as a character of the value
+					if (!this.strictQuotes && i > lineStart && this.byteAt(i - 1) != this.separator && this.hasNext(i, limit) && this.byteAt(i + 1) != this.separator) {
+						if (this.ignoreLeadingWhitespace && this.valueLength > 0 && this.isValueWhitespace())
+							this.valueLength = 0;
+						else
+							this.append(c);
+					}
+					i++;
+				}
+				inField = !inField;
+				continue;
+			}
+
+			if (c == this.separator && !inQuotes) {
+				this.addValue(fromQuotedField);
+				fromQuotedField = false;
+				inField = false;
+				i++;
+				continue;
+			}
+
+			if (!this.strictQuotes || inQuotes) {
+				// Plain characters come in runs, which are copied at once up to the next character that needs a decision
+				int runEnd = this.plainRunEnd(i, windowEndsFile ? limit : limit - 1);
+				this.append(i, runEnd);
+				inField = true;
+				i = runEnd;
+			} else {
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * @return the position behind the run of plain characters that starts with the plain character at i; the run ends
+	 * before the next special character, at the end of the current block or at the given limit
+	 */
+	private int plainRunEnd(int i, int limit) {
+		byte[] block = this.block;
+		int end = Math.min(limit, this.blockEnd) - this.blockStart;
+		int j = i + 1 - this.blockStart;
+		while (j < end) {
+			byte c = block[j];
+			if (c == this.separator || c == this.quote || c == this.escape || c == '\n' || c == '\r')
+				break;
+			j++;
+		}
+		return Math.max(i + 1, j + this.blockStart);
+	}
+
+	/**
+	 * @return true if the character at i is followed by another character on the same line; only quotes and escapes
+	 * need to know, so it is not checked for the plain characters of a value, which are by far the most
+	 */
+	private boolean hasNext(int i, int limit) {
+		return i + 1 < limit && this.byteAt(i + 1) != '\n' && this.byteAt(i + 1) != '\r';
+	}
+
+	private byte byteAt(int i) {
+		if (i < this.blockStart || i >= this.blockEnd) {
+			// The block starts one byte early, because a quote looks back at its predecessor
+			this.blockStart = Math.max(0, i - 1);
+			this.blockEnd = Math.min(this.window.limit(), this.blockStart + BLOCK_SIZE);
+			this.window.position(this.blockStart);
+			this.window.get(this.block, 0, this.blockEnd - this.blockStart);
+		}
+		return this.block[i - this.blockStart];
+	}
+
+	private boolean isEscapable(byte c) {
+		return (this.hasQuote && c == this.quote) || c == this.escape;
+	}
+
+	private boolean isValueWhitespace() {
+		for (int i = 0; i < this.valueLength; i++)
+			if (!Character.isWhitespace(this.value[i]))
+				return false;
+		return true;
+	}
+
+	private void append(int start, int end) {
+		int length = end - start;
+		if (this.valueLength + length > this.value.length)
+			this.value = Arrays.copyOf(this.value, Math.max(this.value.length * 2, this.valueLength + length));
+		System.arraycopy(this.block, start - this.blockStart, this.value, this.valueLength, length);
+		this.valueLength += length;
+	}
+
+	private void append(byte c) {
+		if (this.valueLength == this.value.length)
+			this.value = Arrays.copyOf(this.value, this.value.length * 2);
+		this.value[this.valueLength++] = c;
+	}
+
+	private void addValue(boolean fromQuotedField) {
+		if (this.numValues == this.values.length)
+			this.values = Arrays.copyOf(this.values, this.values.length * 2);
+
+		// Like OpenCSV's EMPTY_SEPARATORS null field indicator: only empty values that were not quoted become null
+		this.values[this.numValues++] = (this.valueLength == 0 && !fromQuotedField) ? null : new String(this.value, 0, this.valueLength, this.charset);
+		this.valueLength = 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.window = null;
+		this.channel.close();
+	}
+}
@@ -0,0 +1,206 @@
+package de.ddm.io;
+
+import de.ddm.configuration.InputConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Reads a file in parallel: the file is split into byte ranges at record boundaries, and every range is parsed by its
+ * own MappedCsvReader as a task on an executor, e.g. the input reader dispatcher of the actor system.
+ * <p>
+ * A line break is a record boundary if the number of unescaped quotes before it is even. The splitter counts the quotes
+ * of all ranges in parallel and then moves every split point forward to the next line break with an even quote count,
+ * so that line breaks within quoted values never split a record.
+ */
+public class ParallelCsvReader {
+
+	public static final long MIN_RANGE_SIZE = 16 * 1024 * 1024; // Smaller ranges do not pay off their scheduling
+
+	private final File file;
+	private final InputConfiguration inputConfiguration;
+	private final Executor executor;
+
+	private final byte quote;
+	private final byte escape;
+	private final boolean hasQuote;
+	private final boolean hasEscape;
+
+	public ParallelCsvReader(File file, InputConfiguration inputConfiguration, Executor executor) {
+		this.file = file;
+		this.inputConfiguration = inputConfiguration;
+		this.executor = executor;
+
+		this.quote = (byte) inputConfiguration.getValueQuote();
+		this.escape = (byte) inputConfiguration.getValueEscape();
+		this.hasQuote = inputConfiguration.getValueQuote() != '\0';
+		this.hasEscape = inputConfiguration.getValueEscape() != '\0' && inputConfiguration.getValueEscape() != inputConfiguration.getValueQuote();
+	}
+
+	/**
+	 * Splits the file into at most the given number of ranges; files smaller than MIN_RANGE_SIZE per range are split
+	 * into fewer ranges.
+	 */
+	public List<CsvRange> split(int parallelism) throws IOException {
+		return this.split(parallelism, MIN_RANGE_SIZE);
+	}
+
+	public List<CsvRange> split(int parallelism, long minRangeSize) throws IOException {
+		long size = this.file.length();
+		int numRanges = (int) Math.max(1, Math.min(parallelism, (size + minRangeSize - 1) / minRangeSize));
+
+		long[] splitPoints = new long[numRanges + 1];
+		for (int i = 0; i <= numRanges; i++)
+			splitPoints[i] = size * i / numRanges;
+
+		// Count the quotes of all ranges in parallel to know the quote parity at every split point
+		List<CompletableFuture<Long>> quoteCounts = new ArrayList<>(numRanges);
+		for (int i = 0; i < numRanges - 1; i++) {
+			long start = splitPoints[i];
+			long end = splitPoints[i + 1];
+			quoteCounts.add(CompletableFuture.supplyAsync(() -> this.countQuotes(start, end), this.executor));
+		}
+
+		List<CsvRange> ranges = new ArrayList<>(numRanges);
+		long rangeStart = 0;
+		long quotes = 0;
+		for (int i = 1; i < numRanges; i++) {
+			quotes += quoteCounts.get(i - 1).join();
+
+			// A quoted value may have moved the previous boundary behind this split point
+			if (splitPoints[i] <= rangeStart)
+				continue;
+
+			long boundary = this.findBoundary(splitPoints[i], size, quotes % 2 == 1);
+			if (boundary < size) {
+				ranges.add(new CsvRange(ranges.size(), rangeStart, boundary));
+				rangeStart = boundary;
+			}
+		}
+		ranges.add(new CsvRange(ranges.size(), rangeStart, size));
+		return ranges;
+	}
+
+	/**
+	 * Parses the given ranges in parallel and passes their batches to the consumer, which must therefore be thread-safe
+	 * (e.g. the tell of an actor). The header of the file is skipped if it has one.
+	 */
+	public CompletableFuture<Void> read(List<CsvRange> ranges, int batchSize, Consumer<CsvBatch> consumer) {
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[ranges.size()];
+		for (int i = 0; i < ranges.size(); i++) {
+			CsvRange range = ranges.get(i);
+			tasks[i] = CompletableFuture.runAsync(() -> this.read(range, batchSize, consumer), this.executor);
+		}
+		return CompletableFuture.allOf(tasks);
+	}
+
+	private void read(CsvRange range, int batchSize, Consumer<CsvBatch> consumer) {
+		try (MappedCsvReader reader = new MappedCsvReader(this.file, this.inputConfiguration, range.getStart(), range.getEnd(), MappedCsvReader.DEFAULT_WINDOW_SIZE)) {
+			if (range.getStart() == 0 && this.inputConfiguration.isFileHasHeader())
+				reader.readNext();
+
+			// Reading one batch ahead tells us which batch is the last one of the range
+			int batchIndex = 0;
+			List<String[]> batch = reader.readBatch(batchSize);
+			while (true) {
+				List<String[]> nextBatch = batch.isEmpty() ? batch : reader.readBatch(batchSize);
+				boolean last = nextBatch.isEmpty();
+				consumer.accept(new CsvBatch(range.getIndex(), batchIndex++, last, batch));
+				if (last)
+					return;
+				batch = nextBatch;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private long countQuotes(long start, long end) {
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			long quotes = 0;
+			boolean escaped = this.isEscaped(channel, start);
+			for (long windowStart = start; windowStart < end; windowStart += MappedCsvReader.DEFAULT_WINDOW_SIZE) {
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(MappedCsvReader.DEFAULT_WINDOW_SIZE, end - windowStart));
+				for (int i = 0; i < window.limit(); i++) {
+					byte c = window.get(i);
+					if (escaped) {
+						escaped = false;
+						if (this.isEscapable(c))
+							continue;
+					}
+					if (this.hasEscape && c == this.escape)
+						escaped = true;
+					else if (this.hasQuote && c == this.quote)
+						quotes++;
+				}
+			}
+			return quotes;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the position behind the first line break at or after the split point that is outside of quoted values
+	 */
+	private long findBoundary(long splitPoint, long size, boolean inQuotes) throws IOException {
+		try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+			boolean escaped = this.isEscaped(channel, splitPoint);
+			for (long windowStart = splitPoint; windowStart < size; windowStart += MappedCsvReader.DEFAULT_WINDOW_SIZE) {
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(MappedCsvReader.DEFAULT_WINDOW_SIZE, size - windowStart));
+				for (int i = 0; i < window.limit(); i++) {
+					byte c = window.get(i);
+					if (escaped) {
+						escaped = false;
+						if (this.isEscapable(c))
+							continue;
+					}
+					if (this.hasEscape && c == this.escape) {
+						escaped = true;
+					} else if (this.hasQuote && c == this.quote) {
+						inQuotes = !inQuotes;
+					} else if (c == '\n' && !inQuotes) {
+						return windowStart + i + 1;
+					} else if (c == '\r' && !inQuotes) {
+						long next = windowStart + i + 1;
+						return (next < size && this.byteAt(channel, next) == '\n') ? next + 1 : next;
+					}
+				}
+			}
+			return size;
+		}
+	}
+
+	private boolean isEscapable(byte c) {
+		return (this.hasQuote && c == this.quote) || c == this.escape;
+	}
+
+	/**
+	 * @return true if the byte at the position is preceded by an odd number of escape characters
+	 */
+	private boolean isEscaped(FileChannel channel, long position) throws IOException {
+		if (!this.hasEscape)
+			return false;
+
+		boolean escaped = false;
+		for (long i = position - 1; i >= 0 && this.byteAt(channel, i) == this.escape; i--)
+			escaped = !escaped;
+		return escaped;
+	}
+
+	private byte byteAt(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(1);
+		channel.read(buffer, position);
+		return buffer.get(0);
+	}
+}
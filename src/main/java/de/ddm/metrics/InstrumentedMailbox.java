@@ -0,0 +1,76 @@
+package de.ddm.metrics;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.dispatch.Envelope;
+import akka.dispatch.MailboxType;
+import akka.dispatch.MessageQueue;
+import akka.dispatch.ProducesMessageQueue;
+import akka.dispatch.UnboundedMessageQueueSemantics;
+import com.typesafe.config.Config;
+import de.ddm.singletons.MetricsRegistrySingleton;
+import scala.Option;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An unbounded mailbox that counts the received messages and the queued messages of every actor type in the
+ * MetricsRegistry. SystemConfiguration installs it as the default mailbox if metrics are enabled.
+ */
+public class InstrumentedMailbox implements MailboxType, ProducesMessageQueue<InstrumentedMailbox.InstrumentedMessageQueue> {
+
+	public static class InstrumentedMessageQueue implements MessageQueue, UnboundedMessageQueueSemantics {
+
+		private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+
+		private final MetricsRegistry.Counter messages;
+		private final MetricsRegistry.Counter depth;
+
+		private InstrumentedMessageQueue(String actorType) {
+			String labels = "actor=\"" + actorType + "\"";
+			this.messages = MetricsRegistrySingleton.get().counter("ddm_messages_total", labels);
+			this.depth = MetricsRegistrySingleton.get().upDownCounter("ddm_mailbox_depth", labels);
+		}
+
+		@Override
+		public void enqueue(ActorRef receiver, Envelope handle) {
+			this.queue.offer(handle);
+			this.messages.increment();
+			this.depth.increment();
+		}
+
+		@Override
+		public Envelope dequeue() {
+			Envelope envelope = this.queue.poll();
+			if (envelope != null)
+				this.depth.add(-1);
+			return envelope;
+		}
+
+		@Override
+		public int numberOfMessages() {
+			return this.queue.size();
+		}
+
+		@Override
+		public boolean hasMessages() {
+			return !this.queue.isEmpty();
+		}
+
+		@Override
+		public void cleanUp(ActorRef owner, MessageQueue deadLetters) {
+			Envelope envelope;
+			while ((envelope = this.dequeue()) != null)
+				deadLetters.enqueue(owner, envelope);
+		}
+	}
+
+	public InstrumentedMailbox(ActorSystem.Settings settings, Config config) {
+	}
+
+	@Override
+	public MessageQueue create(Option<ActorRef> owner, Option<ActorSystem> system) {
+		return new InstrumentedMessageQueue(owner.isDefined() ? MetricsRegistry.actorTypeOf(owner.get().path()) : "system");
+	}
+}
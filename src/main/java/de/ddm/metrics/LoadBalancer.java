@@ -0,0 +1,66 @@
+package de.ddm.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Decides, from the loads that the workers report and the bytes that the master still has to deliver to their nodes,
+ * which workers get tasks first and which workers get only one task at a time. A worker is overloaded if its node is
+ * short of heap or has not yet acknowledged more bytes from the master's node than one proxy's in-flight budget; such a
+ * worker keeps its requests, but it gets its next task only after it finished the current one, so that a memory-tight
+ * or slowly receiving node can not hoard tasks while other nodes idle. The CPU load only ranks the workers, because a
+ * node whose workers are all busy is saturated by design.
+ */
+public class LoadBalancer {
+
+	private final boolean enabled;
+	private final double minHeapHeadroom;
+	private final long maxPendingProxyBytes;
+
+	public LoadBalancer(boolean enabled, double minHeapHeadroom, long maxPendingProxyBytes) {
+		this.enabled = enabled;
+		this.minHeapHeadroom = minHeapHeadroom;
+		this.maxPendingProxyBytes = maxPendingProxyBytes;
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * @param pendingProxyBytes the bytes that the master's node still has to deliver to the worker's node
+	 * @return the reasons why the worker should get only one task at a time, or null if it may get all tasks it asks for
+	 */
+	public String overloadOf(NodeLoad load, long pendingProxyBytes) {
+		if (!this.enabled)
+			return null;
+
+		List<String> reasons = new ArrayList<>();
+		if (load != null && load.getHeapHeadroom() < this.minHeapHeadroom)
+			reasons.add(String.format(Locale.ROOT, "heap headroom %.0f%% < %.0f%%", load.getHeapHeadroom() * 100, this.minHeapHeadroom * 100));
+		if (pendingProxyBytes > this.maxPendingProxyBytes)
+			reasons.add(String.format(Locale.ROOT, "pending proxy bytes %.1f MB > %.1f MB",
+					pendingProxyBytes / (1024.0 * 1024.0), this.maxPendingProxyBytes / (1024.0 * 1024.0)));
+		return reasons.isEmpty() ? null : String.join(", ", reasons);
+	}
+
+	/**
+	 * @param pendingProxyBytes        the bytes that the master's node still has to deliver to the worker's node
+	 * @param nanosPerCandidate        the worker's recent processing time per candidate, or 0 if it is not known yet
+	 * @param fastestNanosPerCandidate the lowest known processing time per candidate of all workers, or 0
+	 * @return the worker's rank for the next tasks; lower is better, and every signal adds at most one, except the
+	 * latency, which adds how many times slower than the fastest worker the worker is (up to four)
+	 */
+	public double scoreOf(NodeLoad load, long pendingProxyBytes, double nanosPerCandidate, double fastestNanosPerCandidate) {
+		double score = 0;
+		if (load != null) {
+			score += Math.max(0, load.getCpuLoad());
+			score += 1.0 - load.getHeapHeadroom();
+		}
+		score += Math.min(1.0, (double) pendingProxyBytes / Math.max(1, this.maxPendingProxyBytes));
+		if (nanosPerCandidate > 0 && fastestNanosPerCandidate > 0)
+			score += Math.min(4.0, nanosPerCandidate / fastestNanosPerCandidate - 1.0);
+		return score;
+	}
+}
@@ -0,0 +1,43 @@
+package de.ddm.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the latest rendering of the cluster's metrics on /metrics for Prometheus scrapers. The server runs on its own
+ * thread and only reads the text that the MetricsCollector publishes, so a scrape never blocks an actor.
+ */
+public class MetricsEndpoint {
+
+	public static final String PATH = "/metrics";
+
+	private final HttpServer server;
+
+	private volatile byte[] text = new byte[0];
+
+	public MetricsEndpoint(int port) throws IOException {
+		// Bind to all interfaces, so that the endpoint is reachable from other pods in Kubernetes
+		this.server = HttpServer.create(new InetSocketAddress(port), 0);
+		this.server.createContext(PATH, exchange -> {
+			byte[] body = this.text;
+			exchange.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream output = exchange.getResponseBody()) {
+				output.write(body);
+			}
+		});
+		this.server.start();
+	}
+
+	public void publish(String text) {
+		this.text = text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	public void stop() {
+		this.server.stop(0);
+	}
+}
@@ -0,0 +1,159 @@
+package de.ddm.metrics;
+
+import akka.actor.ActorPath;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import de.ddm.performance.LatencyHistogram;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * The metrics of one JVM: counters, up-down counters and callback gauges, and histograms. Every series is identified
+ * by its name and its labels in the Prometheus text format, e.g. "ddm_messages_total" and "actor=\"worker\"". The
+ * instruments are thread-safe, because they are updated from mailboxes and actors on any dispatcher, and they are
+ * cached by their users, so that an update is only an increment of a LongAdder.
+ */
+public class MetricsRegistry {
+
+	private static final Pattern INSTANCE_SUFFIX = Pattern.compile("_\\d+$");
+
+	public static class Counter {
+		private final LongAdder value = new LongAdder();
+
+		public void increment() {
+			this.value.increment();
+		}
+
+		public void add(long amount) {
+			this.value.add(amount);
+		}
+
+		public long get() {
+			return this.value.sum();
+		}
+	}
+
+	public static class Histogram {
+		private final LatencyHistogram histogram = new LatencyHistogram();
+		private final double secondsPerValue;
+
+		private Histogram(TimeUnit unit) {
+			this.secondsPerValue = unit.toNanos(1) / 1e9;
+		}
+
+		public synchronized void record(long value) {
+			this.histogram.record(value);
+		}
+
+		private synchronized MetricsSnapshot.Summary summarize() {
+			// The values are recorded in their unit, but exported in seconds, the base unit of Prometheus
+			return new MetricsSnapshot.Summary(this.histogram.getTotalCount(), this.histogram.getSum() * this.secondsPerValue,
+					this.histogram.getValueAtPercentile(50) * this.secondsPerValue, this.histogram.getValueAtPercentile(90) * this.secondsPerValue,
+					this.histogram.getValueAtPercentile(99) * this.secondsPerValue);
+		}
+	}
+
+	private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+	private final Map<String, Counter> upDownCounters = new ConcurrentHashMap<>();
+	private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+	private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the monotonic counter of the series, e.g. of all messages that an actor type received so far
+	 */
+	public Counter counter(String name, String labels) {
+		return this.counters.computeIfAbsent(seriesOf(name, labels), series -> new Counter());
+	}
+
+	/**
+	 * @return a counter that is exported as a gauge, because it goes up and down, e.g. the depth of mailboxes
+	 */
+	public Counter upDownCounter(String name, String labels) {
+		return this.upDownCounters.computeIfAbsent(seriesOf(name, labels), series -> new Counter());
+	}
+
+	/**
+	 * Registers a gauge whose value is read only when a snapshot is taken; the supplier must be thread-safe.
+	 */
+	public void gauge(String name, String labels, DoubleSupplier supplier) {
+		this.gauges.put(seriesOf(name, labels), supplier);
+	}
+
+	/**
+	 * @return the histogram of the series, whose durations are recorded in the given unit and exported in seconds, so
+	 * the name should end with "_seconds"
+	 */
+	public Histogram histogram(String name, String labels, TimeUnit unit) {
+		return this.histograms.computeIfAbsent(seriesOf(name, labels), series -> new Histogram(unit));
+	}
+
+	public MetricsSnapshot snapshot(String node) {
+		Map<String, Double> counters = new HashMap<>();
+		this.counters.forEach((series, counter) -> counters.put(series, (double) counter.get()));
+
+		Map<String, Double> gauges = new HashMap<>();
+		this.upDownCounters.forEach((series, counter) -> gauges.put(series, (double) counter.get()));
+		this.gauges.forEach((series, supplier) -> gauges.put(series, supplier.getAsDouble()));
+
+		Map<String, MetricsSnapshot.Summary> summaries = new HashMap<>();
+		this.histograms.forEach((series, histogram) -> summaries.put(series, histogram.summarize()));
+
+		return new MetricsSnapshot(node, System.currentTimeMillis(), counters, gauges, summaries);
+	}
+
+	/**
+	 * Registers the heap gauges and records the duration of every garbage collection in a histogram per collector.
+	 */
+	public void registerJvmMetrics() {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		this.gauge("ddm_jvm_heap_used_bytes", "", () -> memory.getHeapMemoryUsage().getUsed());
+		this.gauge("ddm_jvm_heap_committed_bytes", "", () -> memory.getHeapMemoryUsage().getCommitted());
+		this.gauge("ddm_jvm_heap_max_bytes", "", () -> memory.getHeapMemoryUsage().getMax());
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (!(collector instanceof NotificationEmitter))
+				continue;
+
+			Histogram pauses = this.histogram("ddm_jvm_gc_pause_seconds", "gc=\"" + collector.getName() + "\"", TimeUnit.MILLISECONDS);
+			((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+				if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION))
+					pauses.record(GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo().getDuration());
+			}, null, null);
+		}
+	}
+
+	/**
+	 * @return the type of the actor at the path, i.e. its name without the instance number of numbered siblings,
+	 * e.g. "worker" for /user/workers/worker_3 and "largeMessageProxy" for /user/workers/worker_3/largeMessageProxy
+	 */
+	public static String actorTypeOf(ActorPath path) {
+		List<String> elements = new ArrayList<>();
+		path.getElements().forEach(elements::add);
+
+		if (elements.isEmpty() || !elements.get(0).equals("user"))
+			return "system";
+		if (elements.size() == 1)
+			return "userGuardian";
+
+		String name = elements.get(elements.size() - 1);
+		if (name.startsWith("$"))
+			return "anonymous";
+		return INSTANCE_SUFFIX.matcher(name).replaceFirst("");
+	}
+
+	private static String seriesOf(String name, String labels) {
+		return labels.isEmpty() ? name : name + "{" + labels + "}";
+	}
+}
@@ -0,0 +1,38 @@
+package de.ddm.metrics;
+
+import de.ddm.serialization.AkkaSerializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * The values of all series of one node's MetricsRegistry at one point in time. The series are keyed by their names
+ * and labels in the Prometheus text format; histograms are reduced to summaries, so that a snapshot stays small.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricsSnapshot implements AkkaSerializable {
+
+	private static final long serialVersionUID = 2871659034458731204L;
+
+	@Getter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Summary implements AkkaSerializable {
+		private static final long serialVersionUID = -6032114576803411879L;
+		private long count;
+		private double sum;
+		private double p50;
+		private double p90;
+		private double p99;
+	}
+
+	private String node;
+	private long timestampInMillis;
+	private Map<String, Double> counters;
+	private Map<String, Double> gauges;
+	private Map<String, Summary> summaries;
+}
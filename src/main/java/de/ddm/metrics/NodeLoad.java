@@ -0,0 +1,81 @@
+package de.ddm.metrics;
+
+import de.ddm.serialization.AkkaSerializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Locale;
+
+/**
+ * The load of one node as the workers report it with their work requests. All workers of a node report the same
+ * values, which are measured at most every MEASUREMENT_INTERVAL_IN_MILLIS, because a worker requests work after
+ * every task.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeLoad implements AkkaSerializable {
+
+	private static final long serialVersionUID = -3850270398143952715L;
+
+	private static final long MEASUREMENT_INTERVAL_IN_MILLIS = 500;
+
+	private static volatile NodeLoad latest = null;
+
+	private double cpuLoad; // The recent CPU utilization of the entire machine (0-1), or -1 if the JVM can not measure it
+	private double heapHeadroom; // The fraction of the old generation that was free after the last collection (0-1)
+	private long timestampInMillis;
+
+	public static NodeLoad measure() {
+		NodeLoad load = latest;
+		long now = System.currentTimeMillis();
+		if (load != null && now - load.timestampInMillis < MEASUREMENT_INTERVAL_IN_MILLIS)
+			return load;
+
+		load = new NodeLoad(cpuLoad(), heapHeadroom(), now);
+		latest = load;
+		return load;
+	}
+
+	private static double heapHeadroom() {
+		// The current usage includes all garbage since the last collection, so it would report a nearly full heap on
+		// every healthy node; the usage after the last collection of the largest pool, i.e. the old generation, does not
+		MemoryUsage usage = null;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			MemoryUsage collectionUsage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+			if (collectionUsage != null && collectionUsage.getMax() > 0 && (usage == null || collectionUsage.getMax() > usage.getMax()))
+				usage = collectionUsage;
+		}
+		if (usage == null)
+			usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+		long max = usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+		return max <= 0 ? 1.0 : 1.0 - (double) usage.getUsed() / max;
+	}
+
+	private static double cpuLoad() {
+		OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+		if (system instanceof com.sun.management.OperatingSystemMXBean) {
+			// getCpuLoad() replaces it only from Java 14 on, but the build targets Java 11
+			@SuppressWarnings("deprecation")
+			double cpuLoad = ((com.sun.management.OperatingSystemMXBean) system).getSystemCpuLoad();
+			if (cpuLoad >= 0)
+				return cpuLoad;
+		}
+		// The load average counts waiting threads as well, so it is only an approximation of the utilization
+		double loadAverage = system.getSystemLoadAverage();
+		return loadAverage < 0 ? -1 : Math.min(1.0, loadAverage / system.getAvailableProcessors());
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "cpu %s, heap headroom %.0f%%",
+				this.cpuLoad < 0 ? "n/a" : String.format(Locale.ROOT, "%.0f%%", this.cpuLoad * 100), this.heapHeadroom * 100);
+	}
+}
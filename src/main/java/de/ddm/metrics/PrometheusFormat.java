@@ -0,0 +1,72 @@
+package de.ddm.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Renders the snapshots of all nodes in the Prometheus text exposition format (version 0.0.4). Every series gets the
+ * node that reported it as an additional label, and the series of all nodes are grouped by their metric, because the
+ * format allows only one block per metric.
+ */
+public class PrometheusFormat {
+
+	public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private static class Family {
+		private final String type;
+		private final List<String> lines = new ArrayList<>();
+
+		private Family(String type) {
+			this.type = type;
+		}
+	}
+
+	public static String render(Collection<MetricsSnapshot> snapshots) {
+		Map<String, Family> families = new TreeMap<>();
+		for (MetricsSnapshot snapshot : snapshots) {
+			String node = "node=\"" + snapshot.getNode() + "\"";
+
+			snapshot.getCounters().forEach((series, value) -> familyOf(families, series, "counter").lines.add(withNode(series, "", node) + " " + format(value)));
+			snapshot.getGauges().forEach((series, value) -> familyOf(families, series, "gauge").lines.add(withNode(series, "", node) + " " + format(value)));
+			snapshot.getSummaries().forEach((series, summary) -> {
+				List<String> lines = familyOf(families, series, "summary").lines;
+				lines.add(withNode(series, "", node + ",quantile=\"0.5\"") + " " + format(summary.getP50()));
+				lines.add(withNode(series, "", node + ",quantile=\"0.9\"") + " " + format(summary.getP90()));
+				lines.add(withNode(series, "", node + ",quantile=\"0.99\"") + " " + format(summary.getP99()));
+				lines.add(withNode(series, "_sum", node) + " " + format(summary.getSum()));
+				lines.add(withNode(series, "_count", node) + " " + summary.getCount());
+			});
+		}
+
+		StringBuilder builder = new StringBuilder();
+		families.forEach((name, family) -> {
+			builder.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+			family.lines.forEach(line -> builder.append(line).append('\n'));
+		});
+		return builder.toString();
+	}
+
+	private static Family familyOf(Map<String, Family> families, String series, String type) {
+		return families.computeIfAbsent(nameOf(series), name -> new Family(type));
+	}
+
+	private static String nameOf(String series) {
+		int labelsStart = series.indexOf('{');
+		return labelsStart < 0 ? series : series.substring(0, labelsStart);
+	}
+
+	private static String withNode(String series, String suffix, String labels) {
+		int labelsStart = series.indexOf('{');
+		if (labelsStart < 0)
+			return series + suffix + "{" + labels + "}";
+		return series.substring(0, labelsStart) + suffix + "{" + labels + "," + series.substring(labelsStart + 1);
+	}
+
+	private static String format(double value) {
+		return value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%f", value);
+	}
+}
@@ -0,0 +1,84 @@
+package de.ddm.performance;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import de.ddm.serialization.AkkaSerializable;
+import lombok.Getter;
+
+/**
+ * A compact histogram in the style of HdrHistogram: values are counted in log-linear buckets, i.e., every power of
+ * two is split into a fixed number of sub-buckets, so that any recorded value is reproduced with a relative error
+ * below 2^-(SUB_BUCKET_BITS - 1) (< 2%) while the histogram needs only a few thousand counters for all long values.
+ */
+@Getter
+public class LatencyHistogram implements AkkaSerializable {
+
+	private static final long serialVersionUID = 6120419318236470412L;
+
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+	private long[] counts = new long[SUB_BUCKET_COUNT + (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT];
+	private long totalCount = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+
+	public void record(long value) {
+		value = Math.max(0, value);
+
+		this.counts[indexOf(value)]++;
+		this.totalCount++;
+		this.sum += value;
+		this.min = Math.min(this.min, value);
+		this.max = Math.max(this.max, value);
+	}
+
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < this.counts.length; i++)
+			this.counts[i] += other.counts[i];
+		this.totalCount += other.totalCount;
+		this.sum += other.sum;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+	}
+
+	@JsonIgnore
+	public double getMean() {
+		return this.totalCount == 0 ? 0 : (double) this.sum / this.totalCount;
+	}
+
+	/**
+	 * Returns the (highest equivalent) value below which the given percentile (0-100) of all recorded values falls.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (this.totalCount == 0)
+			return 0;
+
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.totalCount));
+		long count = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			count += this.counts[i];
+			if (count >= countAtPercentile)
+				return Math.min(highestValueOf(i), this.max);
+		}
+		return this.max;
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT)
+			return (int) value;
+
+		int shift = (Long.SIZE - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (int) ((value >>> shift) - SUB_BUCKET_HALF_COUNT);
+	}
+
+	private static long highestValueOf(int index) {
+		if (index < SUB_BUCKET_COUNT)
+			return index;
+
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+		long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
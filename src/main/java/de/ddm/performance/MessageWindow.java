@@ -0,0 +1,65 @@
+package de.ddm.performance;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+
+/**
+ * Numbers the messages of a streaming performance test sender and keeps at most a window of them unacknowledged. A
+ * message may go to several receivers (e.g. in a broadcast); it leaves the window with its last acknowledgement, but
+ * every acknowledgement yields a latency.
+ */
+public class MessageWindow {
+
+	private final int size;
+	private final long numberOfMessages;
+
+	private final Long2LongOpenHashMap sendTimes = new Long2LongOpenHashMap(); // The send time of every unacknowledged message
+	private final Long2IntOpenHashMap pendingAcknowledgements = new Long2IntOpenHashMap();
+
+	private long nextSequence = 0;
+	private long completedMessages = 0;
+
+	public MessageWindow(int size, long numberOfMessages) {
+		this.size = Math.max(1, size);
+		this.numberOfMessages = numberOfMessages;
+	}
+
+	public boolean canSend() {
+		return this.sendTimes.size() < this.size && this.nextSequence < this.numberOfMessages;
+	}
+
+	/**
+	 * @return the sequence number of the sent message
+	 */
+	public long send(int receivers, long timeInNanos) {
+		long sequence = this.nextSequence++;
+		this.sendTimes.put(sequence, timeInNanos);
+		this.pendingAcknowledgements.put(sequence, receivers);
+		return sequence;
+	}
+
+	/**
+	 * @return the time from sending the message to this acknowledgement in nanoseconds, or -1 if the message is not
+	 * in the window (anymore)
+	 */
+	public long acknowledge(long sequence, long timeInNanos) {
+		if (!this.sendTimes.containsKey(sequence))
+			return -1;
+
+		long latencyInNanos = timeInNanos - this.sendTimes.get(sequence);
+		if (this.pendingAcknowledgements.addTo(sequence, -1) <= 1) {
+			this.sendTimes.remove(sequence);
+			this.pendingAcknowledgements.remove(sequence);
+			this.completedMessages++;
+		}
+		return latencyInNanos;
+	}
+
+	public long getSentMessages() {
+		return this.nextSequence;
+	}
+
+	public boolean isComplete() {
+		return this.completedMessages >= this.numberOfMessages;
+	}
+}
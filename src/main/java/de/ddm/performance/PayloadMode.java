@@ -0,0 +1,8 @@
+package de.ddm.performance;
+
+public enum PayloadMode {
+
+	RANDOM, // Random bytes; the fraction of random 64 byte blocks is set by the payload entropy, 1 makes them incompressible
+	COMPRESSIBLE, // Text-like content of words and separators that compresses roughly like the CSV input data
+	CONSTANT // One repeated byte; the best case for every codec
+}
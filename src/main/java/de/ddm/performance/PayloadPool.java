@@ -0,0 +1,75 @@
+package de.ddm.performance;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The pre-generated payloads of the performance test: either a pool of payloads that are handed out round-robin, or,
+ * with a pool size of 0, one seed block from which every payload is derived. A pool never changes after its creation,
+ * so all actors of a node can share it through their own PayloadProviders.
+ */
+@Getter
+public class PayloadPool {
+
+	private static final int SEED_BLOCK_SIZE = 1024 * 1024;
+
+	private static final String[] WORDS = {"customer", "supplier", "order", "lineitem", "nation", "region", "part",
+			"BUILDING", "AUTOMOBILE", "MACHINERY", "HOUSEHOLD", "FURNITURE", "1-URGENT", "2-HIGH", "3-MEDIUM", "4-NOT SPECIFIED",
+			"Clerk#000000", "Customer#000", "Supplier#000", "regular", "express", "deposits", "accounts", "packages", "furiously"};
+
+	private final int size;
+	private final byte[][] payloads; // null if the payloads are derived from the seed block
+	private final byte[] seedBlock; // null if the payloads are pooled
+	private final long generationTimeInNanos;
+
+	public PayloadPool(Random random, int size, int poolSize, PayloadMode mode, double entropy) {
+		long startTime = System.nanoTime();
+
+		this.size = size;
+		if (poolSize > 0) {
+			this.payloads = new byte[poolSize][];
+			for (int i = 0; i < poolSize; i++)
+				this.payloads[i] = generate(random, size, mode, entropy);
+			this.seedBlock = null;
+		} else {
+			this.payloads = null;
+			this.seedBlock = generate(random, Math.min(size, SEED_BLOCK_SIZE), mode, entropy);
+		}
+
+		this.generationTimeInNanos = System.nanoTime() - startTime;
+	}
+
+	private static byte[] generate(Random random, int size, PayloadMode mode, double entropy) {
+		switch (mode) {
+			case RANDOM:
+				return Payloads.generate(random, size, entropy);
+			case COMPRESSIBLE:
+				return generateText(random, size);
+			case CONSTANT:
+				byte[] data = new byte[size];
+				Arrays.fill(data, (byte) 'a');
+				return data;
+			default:
+				throw new AssertionError();
+		}
+	}
+
+	private static byte[] generateText(Random random, int size) {
+		byte[] data = new byte[size];
+		int offset = 0;
+		while (offset < size) {
+			byte[] value = (random.nextInt(3) == 0) ?
+					String.valueOf(random.nextInt(100000)).getBytes(StandardCharsets.US_ASCII) :
+					WORDS[random.nextInt(WORDS.length)].getBytes(StandardCharsets.US_ASCII);
+			int length = Math.min(value.length, size - offset);
+			System.arraycopy(value, 0, data, offset, length);
+			offset += length;
+			if (offset < size)
+				data[offset++] = (byte) (random.nextInt(8) == 0 ? '\n' : ';');
+		}
+		return data;
+	}
+}
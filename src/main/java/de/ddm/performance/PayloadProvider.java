@@ -0,0 +1,63 @@
+package de.ddm.performance;
+
+import lombok.Getter;
+
+import java.util.Random;
+
+/**
+ * Provides the payloads of the performance test without generating a fresh payload per message: the provider either
+ * hands out the payloads of its pool round-robin, or, if the pool has only a seed block, derives every payload from it
+ * by copying it with a rotating offset. Pooled payloads are shared between messages and must therefore never be
+ * modified. Every actor needs its own provider, but the providers of one node may share one pool.
+ */
+public class PayloadProvider {
+
+	private final PayloadPool pool;
+
+	private long next = 0; // A long, because the rotation of a small-message test would overflow an int after some 500k payloads
+
+	@Getter
+	private long generationTimeInNanos = 0; // The time spent deriving payloads, excluding the generation of the shared pool
+
+	public PayloadProvider(PayloadPool pool) {
+		this.pool = pool;
+	}
+
+	public PayloadProvider(Random random, int size, int poolSize, PayloadMode mode, double entropy) {
+		this(new PayloadPool(random, size, poolSize, mode, entropy));
+		this.generationTimeInNanos = this.pool.getGenerationTimeInNanos();
+	}
+
+	public long getPoolGenerationTimeInNanos() {
+		return this.pool.getGenerationTimeInNanos();
+	}
+
+	/**
+	 * @return the next payload; the caller must not modify it
+	 */
+	public byte[] next() {
+		byte[][] payloads = this.pool.getPayloads();
+		if (payloads != null)
+			return payloads[Math.floorMod(this.next++, payloads.length)];
+
+		long startTime = System.nanoTime();
+
+		// Rotating the seed block by a different offset for every payload keeps consecutive payloads distinct
+		byte[] seedBlock = this.pool.getSeedBlock();
+		int size = this.pool.getSize();
+		byte[] payload = new byte[size];
+		if (seedBlock.length > 0) {
+			int rotation = Math.floorMod(this.next++ * 4099, seedBlock.length);
+			int offset = 0;
+			while (offset < size) {
+				int length = Math.min(seedBlock.length - rotation, size - offset);
+				System.arraycopy(seedBlock, rotation, payload, offset, length);
+				offset += length;
+				rotation = 0;
+			}
+		}
+
+		this.generationTimeInNanos += System.nanoTime() - startTime;
+		return payload;
+	}
+}
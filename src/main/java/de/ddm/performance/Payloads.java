@@ -0,0 +1,33 @@
+package de.ddm.performance;
+
+import java.util.Random;
+
+public class Payloads {
+
+	private static final int BLOCK_SIZE = 64;
+
+	/**
+	 * Generates a payload whose compressibility is tunable: roughly the given fraction (the entropy) of its 64 byte
+	 * blocks is random, all other blocks repeat the same constant pattern. An entropy of 1 yields purely random bytes.
+	 */
+	public static byte[] generate(Random random, int size, double entropy) {
+		byte[] data = new byte[size];
+		if (entropy >= 1.0) {
+			random.nextBytes(data);
+			return data;
+		}
+
+		byte[] block = new byte[BLOCK_SIZE];
+		for (int offset = 0; offset < size; offset += BLOCK_SIZE) {
+			int length = Math.min(BLOCK_SIZE, size - offset);
+			if (random.nextDouble() < entropy) {
+				random.nextBytes(block);
+				System.arraycopy(block, 0, data, offset, length);
+			} else {
+				for (int i = 0; i < length; i++)
+					data[offset + i] = (byte) ('a' + i % 26);
+			}
+		}
+		return data;
+	}
+}
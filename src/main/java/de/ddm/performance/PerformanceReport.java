@@ -0,0 +1,118 @@
+package de.ddm.performance;
+
+import de.ddm.configuration.DispatcherType;
+import de.ddm.configuration.SystemConfiguration;
+import de.ddm.singletons.SystemConfigurationSingleton;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Appends the results of a performance test run as CSV rows to a report file, so that runs with different settings
+ * can be compared automatically. Every row carries the run's identifier and the settings that define the run.
+ */
+public class PerformanceReport {
+
+	private static final String HEADER = "run,source,workers,trafficPattern,trafficWindowSize,messageSizeInBytes,largeMessageProxy,streamRefs,compression,windowSize,payloadMode,payloadEntropy,payloadPoolSize," +
+			"masterDispatcher,workerDispatcher,proxyDispatcher," +
+			"messages,elapsedTimeInMillis,payloadGenerationTimeInMillis,latencyP50InMillis,latencyP90InMillis,latencyP99InMillis,latencyP999InMillis,latencyMaxInMillis," +
+			"throughputMeanInMBps,throughputMinInMBps,throughputMaxInMBps";
+
+	private final File file;
+	private final String run;
+
+	public PerformanceReport(File file, String run) {
+		this.file = file;
+		this.run = run;
+	}
+
+	/**
+	 * @param payloadGenerationTimeInMillis time spent generating payloads, reported separately from the transfers
+	 * @param latencies round trip (or acknowledgement) latencies in microseconds
+	 * @param throughputs throughputs in MB/s per measurement interval
+	 */
+	public void append(String source, int workers, long messages, long elapsedTimeInMillis, long payloadGenerationTimeInMillis,
+					   LatencyHistogram latencies, double[] throughputs) throws IOException {
+		SystemConfiguration config = SystemConfigurationSingleton.get();
+
+		String row = String.join(",",
+				this.run,
+				source,
+				String.valueOf(workers),
+				config.getPerformanceTestTrafficPattern().name(),
+				String.valueOf(config.getPerformanceTestWindowSize()),
+				String.valueOf(config.getPerformanceTestMessageSizeInBytes()),
+				String.valueOf(config.isPerformanceTestUseLargeMessageProxy()),
+				String.valueOf(config.isLargeMessageProxyUseStreamRefs()),
+				config.getLargeMessageProxyCompression().name(),
+				String.valueOf(config.getLargeMessageProxyWindowSize()),
+				config.getPerformanceTestPayloadMode().name(),
+				String.valueOf(config.getPerformanceTestPayloadEntropy()),
+				String.valueOf(config.getPerformanceTestPayloadPoolSize()),
+				describe(config.getMasterDispatcherType(), config.getMasterDispatcherPoolSize(), config.getMasterDispatcherThroughput()),
+				describe(config.getWorkerDispatcherType(), config.getWorkerDispatcherPoolSize(), config.getWorkerDispatcherThroughput()),
+				describe(config.getProxyDispatcherType(), config.getProxyDispatcherPoolSize(), config.getProxyDispatcherThroughput()),
+				String.valueOf(messages),
+				String.valueOf(elapsedTimeInMillis),
+				String.valueOf(payloadGenerationTimeInMillis),
+				toMillis(latencies.getValueAtPercentile(50)),
+				toMillis(latencies.getValueAtPercentile(90)),
+				toMillis(latencies.getValueAtPercentile(99)),
+				toMillis(latencies.getValueAtPercentile(99.9)),
+				toMillis(latencies.getMax()),
+				format(Arrays.stream(throughputs).average().orElse(0)),
+				format(Arrays.stream(throughputs).min().orElse(0)),
+				format(Arrays.stream(throughputs).max().orElse(0)));
+
+		this.archiveIfOutdated();
+		boolean writeHeader = !this.file.exists() || this.file.length() == 0;
+		try (BufferedWriter writer = Files.newBufferedWriter(this.file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			if (writeHeader) {
+				writer.write(HEADER);
+				writer.newLine();
+			}
+			writer.write(row);
+			writer.newLine();
+		}
+	}
+
+	/**
+	 * Moves a report with a different header aside, because its columns may have other meanings and its rows can not be
+	 * compared with the new ones; the new rows then start a new report.
+	 */
+	private void archiveIfOutdated() throws IOException {
+		if (!this.file.exists() || this.file.length() == 0)
+			return;
+
+		String header;
+		try (BufferedReader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+			header = reader.readLine();
+		}
+		if (HEADER.equals(header))
+			return;
+
+		Path archive = this.file.toPath().resolveSibling(this.file.getName() + "." + this.file.lastModified() + ".old");
+		Files.move(this.file.toPath(), archive, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static String describe(DispatcherType type, int poolSize, int throughput) {
+		return type + "/" + poolSize + "/" + throughput;
+	}
+
+	private static String toMillis(long micros) {
+		return format(micros / 1000.0);
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.ROOT, "%.3f", value);
+	}
+}
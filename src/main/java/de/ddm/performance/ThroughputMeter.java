@@ -0,0 +1,45 @@
+package de.ddm.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the throughput in MB/s over consecutive intervals of (at least) the given length. An interval ends with
+ * the first recording after its length has passed, so that slow transfers of large messages do not produce empty
+ * intervals.
+ */
+public class ThroughputMeter {
+
+	private final long intervalInNanos;
+
+	private long intervalStart;
+	private long intervalBytes = 0;
+
+	private final List<Double> throughputs = new ArrayList<>();
+
+	public ThroughputMeter(long intervalInNanos) {
+		this.intervalInNanos = intervalInNanos;
+	}
+
+	public void start(long timeInNanos) {
+		this.intervalStart = timeInNanos;
+		this.intervalBytes = 0;
+		this.throughputs.clear();
+	}
+
+	public void record(long bytes, long timeInNanos) {
+		this.intervalBytes += bytes;
+
+		long elapsedTimeInNanos = timeInNanos - this.intervalStart;
+		if (elapsedTimeInNanos < this.intervalInNanos)
+			return;
+
+		this.throughputs.add(this.intervalBytes / (1024.0 * 1024.0) / (elapsedTimeInNanos / 1e9));
+		this.intervalStart = timeInNanos;
+		this.intervalBytes = 0;
+	}
+
+	public double[] getThroughputsInMBps() {
+		return this.throughputs.stream().mapToDouble(Double::doubleValue).toArray();
+	}
+}
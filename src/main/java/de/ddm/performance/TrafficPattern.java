@@ -0,0 +1,10 @@
+package de.ddm.performance;
+
+public enum TrafficPattern {
+
+	ECHO, // Every worker and the master bounce one message back and forth, i.e. strictly serialized request/response
+	PIPELINED, // Every worker streams its messages to the master, which acknowledges each; the window limits the unacknowledged messages
+	BROADCAST, // The master sends every message to all workers, which acknowledge each; the window limits the unacknowledged messages
+	ALL_TO_ALL, // Every worker streams its messages round-robin to all other workers, which acknowledge each; needs at least two workers
+	PING_PONG // Like ECHO, but with messages of only a few bytes, so that the round trips measure the pure latency
+}
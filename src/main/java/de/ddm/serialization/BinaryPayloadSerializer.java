@@ -0,0 +1,223 @@
+package de.ddm.serialization;
+
+import akka.actor.ExtendedActorSystem;
+import akka.actor.typed.ActorRef;
+import akka.actor.typed.ActorRefResolver;
+import akka.actor.typed.javadsl.Adapter;
+import akka.serialization.ByteBufferSerializer;
+import akka.serialization.SerializerWithStringManifest;
+import akka.util.ByteString;
+import de.ddm.actors.Master;
+import de.ddm.actors.Worker;
+import de.ddm.actors.patterns.LargeMessageProxy;
+
+import java.io.NotSerializableException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A hand-written serializer for the messages that consist (almost) entirely of raw bytes. It writes the actor
+ * reference path, the integer keys, and the length-prefixed payload without any reflection or CBOR framing. As a
+ * ByteBufferSerializer, it writes payloads straight into Artery's envelope buffers.
+ */
+public class BinaryPayloadSerializer extends SerializerWithStringManifest implements ByteBufferSerializer {
+
+	private static final int IDENTIFIER = 4711;
+
+	private static final String BYTES_MESSAGE_MANIFEST = "B";
+	private static final String MASTER_DATA_MESSAGE_DIRECT_MANIFEST = "MD";
+	private static final String MASTER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST = "ML";
+	private static final String WORKER_DATA_MESSAGE_DIRECT_MANIFEST = "WD";
+	private static final String WORKER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST = "WL";
+	private static final String MASTER_STREAM_DATA_MESSAGE_MANIFEST = "MS";
+	private static final String WORKER_STREAM_DATA_MESSAGE_MANIFEST = "WS";
+
+	private final ExtendedActorSystem system;
+
+	private volatile ActorRefResolver actorRefResolver; // Serialization runs on many threads at once
+
+	public BinaryPayloadSerializer(ExtendedActorSystem system) {
+		this.system = system;
+	}
+
+	private ActorRefResolver resolver() {
+		// The resolver cannot be created while the serialization extension of the system is being initialized; a race
+		// between two threads is harmless, because the extension registry hands both the same instance
+		ActorRefResolver resolver = this.actorRefResolver;
+		if (resolver == null) {
+			resolver = ActorRefResolver.get(Adapter.toTyped(this.system));
+			this.actorRefResolver = resolver;
+		}
+		return resolver;
+	}
+
+	@Override
+	public int identifier() {
+		return IDENTIFIER;
+	}
+
+	@Override
+	public String manifest(Object o) {
+		if (o instanceof LargeMessageProxy.BytesMessage)
+			return BYTES_MESSAGE_MANIFEST;
+		if (o instanceof Master.DataMessageDirect)
+			return MASTER_DATA_MESSAGE_DIRECT_MANIFEST;
+		if (o instanceof Master.DataMessageWithLargeMessageProxy)
+			return MASTER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST;
+		if (o instanceof Worker.DataMessageDirect)
+			return WORKER_DATA_MESSAGE_DIRECT_MANIFEST;
+		if (o instanceof Worker.DataMessageWithLargeMessageProxy)
+			return WORKER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST;
+		if (o instanceof Master.StreamDataMessage)
+			return MASTER_STREAM_DATA_MESSAGE_MANIFEST;
+		if (o instanceof Worker.StreamDataMessage)
+			return WORKER_STREAM_DATA_MESSAGE_MANIFEST;
+		throw new IllegalArgumentException("Cannot serialize " + o.getClass().getName() + " with " + this.getClass().getSimpleName());
+	}
+
+	///////////////////
+	// Serialization //
+	///////////////////
+
+	@Override
+	public byte[] toBinary(Object o) {
+		ByteBuffer buffer = ByteBuffer.allocate(this.sizeOf(o));
+		this.toBinary(o, buffer);
+		return buffer.array();
+	}
+
+	@Override
+	public void toBinary(Object o, ByteBuffer buffer) {
+		if (o instanceof LargeMessageProxy.BytesMessage) {
+			LargeMessageProxy.BytesMessage message = (LargeMessageProxy.BytesMessage) o;
+			buffer.putInt(message.getSenderTransmissionKey());
+			buffer.putInt(message.getReceiverTransmissionKey());
+			buffer.put((byte) (message.isCompressed() ? 1 : 0));
+			buffer.putInt(message.getBytes().length());
+			message.getBytes().copyToBuffer(buffer);
+		} else if (o instanceof Master.DataMessageDirect) {
+			Master.DataMessageDirect message = (Master.DataMessageDirect) o;
+			this.putActorRef(message.getWorker(), buffer);
+			this.putBytes(message.getData(), buffer);
+		} else if (o instanceof Master.DataMessageWithLargeMessageProxy) {
+			Master.DataMessageWithLargeMessageProxy message = (Master.DataMessageWithLargeMessageProxy) o;
+			this.putActorRef(message.getWorker(), buffer);
+			this.putActorRef(message.getWorkerLargeMessageProxy(), buffer);
+			this.putBytes(message.getData(), buffer);
+		} else if (o instanceof Worker.DataMessageDirect) {
+			Worker.DataMessageDirect message = (Worker.DataMessageDirect) o;
+			this.putActorRef(message.getMaster(), buffer);
+			this.putBytes(message.getData(), buffer);
+		} else if (o instanceof Worker.DataMessageWithLargeMessageProxy) {
+			Worker.DataMessageWithLargeMessageProxy message = (Worker.DataMessageWithLargeMessageProxy) o;
+			this.putActorRef(message.getMasterLargeMessageProxy(), buffer);
+			this.putBytes(message.getData(), buffer);
+		} else if (o instanceof Master.StreamDataMessage) {
+			Master.StreamDataMessage message = (Master.StreamDataMessage) o;
+			this.putActorRef(message.getWorker(), buffer);
+			buffer.putLong(message.getSequence());
+			this.putBytes(message.getData(), buffer);
+		} else if (o instanceof Worker.StreamDataMessage) {
+			Worker.StreamDataMessage message = (Worker.StreamDataMessage) o;
+			this.putActorRef(message.getSender(), buffer);
+			buffer.putLong(message.getSequence());
+			this.putBytes(message.getData(), buffer);
+		} else {
+			throw new IllegalArgumentException("Cannot serialize " + o.getClass().getName() + " with " + this.getClass().getSimpleName());
+		}
+	}
+
+	private int sizeOf(Object o) {
+		if (o instanceof LargeMessageProxy.BytesMessage)
+			return 3 * Integer.BYTES + 1 + ((LargeMessageProxy.BytesMessage) o).getBytes().length();
+		if (o instanceof Master.DataMessageDirect)
+			return this.sizeOf(((Master.DataMessageDirect) o).getWorker()) + this.sizeOf(((Master.DataMessageDirect) o).getData());
+		if (o instanceof Master.DataMessageWithLargeMessageProxy)
+			return this.sizeOf(((Master.DataMessageWithLargeMessageProxy) o).getWorker()) + this.sizeOf(((Master.DataMessageWithLargeMessageProxy) o).getWorkerLargeMessageProxy()) +
+					this.sizeOf(((Master.DataMessageWithLargeMessageProxy) o).getData());
+		if (o instanceof Worker.DataMessageDirect)
+			return this.sizeOf(((Worker.DataMessageDirect) o).getMaster()) + this.sizeOf(((Worker.DataMessageDirect) o).getData());
+		if (o instanceof Worker.DataMessageWithLargeMessageProxy)
+			return this.sizeOf(((Worker.DataMessageWithLargeMessageProxy) o).getMasterLargeMessageProxy()) + this.sizeOf(((Worker.DataMessageWithLargeMessageProxy) o).getData());
+		if (o instanceof Master.StreamDataMessage)
+			return this.sizeOf(((Master.StreamDataMessage) o).getWorker()) + Long.BYTES + this.sizeOf(((Master.StreamDataMessage) o).getData());
+		if (o instanceof Worker.StreamDataMessage)
+			return this.sizeOf(((Worker.StreamDataMessage) o).getSender()) + Long.BYTES + this.sizeOf(((Worker.StreamDataMessage) o).getData());
+		throw new IllegalArgumentException("Cannot serialize " + o.getClass().getName() + " with " + this.getClass().getSimpleName());
+	}
+
+	private int sizeOf(ActorRef<?> actorRef) {
+		return Integer.BYTES + this.resolver().toSerializationFormat(actorRef).getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	private int sizeOf(byte[] bytes) {
+		return Integer.BYTES + bytes.length;
+	}
+
+	private void putActorRef(ActorRef<?> actorRef, ByteBuffer buffer) {
+		this.putBytes(this.resolver().toSerializationFormat(actorRef).getBytes(StandardCharsets.UTF_8), buffer);
+	}
+
+	private void putBytes(byte[] bytes, ByteBuffer buffer) {
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	/////////////////////
+	// Deserialization //
+	/////////////////////
+
+	@Override
+	public Object fromBinary(byte[] bytes, String manifest) throws NotSerializableException {
+		// The array belongs to this message alone, so byte string payloads may be views of it
+		return this.fromBinary(ByteBuffer.wrap(bytes), manifest, true);
+	}
+
+	@Override
+	public Object fromBinary(ByteBuffer buffer, String manifest) throws NotSerializableException {
+		return this.fromBinary(buffer, manifest, false);
+	}
+
+	private Object fromBinary(ByteBuffer buffer, String manifest, boolean ownsBuffer) throws NotSerializableException {
+		switch (manifest) {
+			case BYTES_MESSAGE_MANIFEST:
+				int senderTransmissionKey = buffer.getInt();
+				int receiverTransmissionKey = buffer.getInt();
+				boolean compressed = buffer.get() != 0;
+				ByteString bytes = ownsBuffer ? this.getByteStringView(buffer) : ByteString.fromArrayUnsafe(this.getBytes(buffer));
+				return new LargeMessageProxy.BytesMessage(bytes, senderTransmissionKey, receiverTransmissionKey, compressed);
+			case MASTER_DATA_MESSAGE_DIRECT_MANIFEST:
+				return new Master.DataMessageDirect(this.getActorRef(buffer), this.getBytes(buffer));
+			case MASTER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST:
+				return new Master.DataMessageWithLargeMessageProxy(this.getActorRef(buffer), this.getActorRef(buffer), this.getBytes(buffer));
+			case WORKER_DATA_MESSAGE_DIRECT_MANIFEST:
+				return new Worker.DataMessageDirect(this.getActorRef(buffer), this.getBytes(buffer));
+			case WORKER_DATA_MESSAGE_WITH_LARGE_MESSAGE_PROXY_MANIFEST:
+				return new Worker.DataMessageWithLargeMessageProxy(this.getActorRef(buffer), this.getBytes(buffer));
+			case MASTER_STREAM_DATA_MESSAGE_MANIFEST:
+				return new Master.StreamDataMessage(this.getActorRef(buffer), buffer.getLong(), this.getBytes(buffer));
+			case WORKER_STREAM_DATA_MESSAGE_MANIFEST:
+				return new Worker.StreamDataMessage(this.getActorRef(buffer), buffer.getLong(), this.getBytes(buffer));
+			default:
+				throw new NotSerializableException("Unknown manifest " + manifest + " for " + this.getClass().getSimpleName());
+		}
+	}
+
+	private <T> ActorRef<T> getActorRef(ByteBuffer buffer) {
+		return this.resolver().resolveActorRef(new String(this.getBytes(buffer), StandardCharsets.UTF_8));
+	}
+
+	private byte[] getBytes(ByteBuffer buffer) {
+		// The buffer may be a pooled Artery envelope, and byte[] fields cannot be views, so the payload is copied exactly once
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	private ByteString getByteStringView(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		ByteString bytes = ByteString.fromArrayUnsafe(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+		buffer.position(buffer.position() + length);
+		return bytes;
+	}
+}
@@ -0,0 +1,25 @@
+package de.ddm.serialization;
+
+import akka.util.ByteString;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a binary value into a ByteString that wraps the decoded array without copying it again.
+ */
+public class ByteStringJsonDeserializer extends StdDeserializer<ByteString> {
+
+	private static final long serialVersionUID = -6204713584939526017L;
+
+	public ByteStringJsonDeserializer() {
+		super(ByteString.class);
+	}
+
+	@Override
+	public ByteString deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		return ByteString.fromArrayUnsafe(parser.getBinaryValue());
+	}
+}
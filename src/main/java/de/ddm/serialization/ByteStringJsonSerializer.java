@@ -0,0 +1,26 @@
+package de.ddm.serialization;
+
+import akka.util.ByteString;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a ByteString as one binary value by streaming it from its backing array(s), so that slices of a larger
+ * ByteString reach the wire without being copied into an intermediate array first.
+ */
+public class ByteStringJsonSerializer extends StdSerializer<ByteString> {
+
+	private static final long serialVersionUID = 2938177451627741903L;
+
+	public ByteStringJsonSerializer() {
+		super(ByteString.class);
+	}
+
+	@Override
+	public void serialize(ByteString value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		generator.writeBinary(value.iterator().asInputStream(), value.length());
+	}
+}
@@ -0,0 +1,16 @@
+package de.ddm.serialization;
+
+import akka.util.ByteString;
+
+public interface CompressionCodec {
+
+	/**
+	 * Compresses the given range of bytes; the result may be larger than the input for incompressible data.
+	 */
+	ByteString compress(byte[] source, int offset, int length);
+
+	/**
+	 * Decompresses the given range of bytes into the target range, whose length must be the uncompressed length.
+	 */
+	void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength);
+}
@@ -0,0 +1,21 @@
+package de.ddm.serialization;
+
+public enum CompressionType {
+
+	NONE, // Transfer the bytes as they are
+	DEFLATE, // java.util.zip's Deflater at a selectable level; good ratio, moderate speed
+	LZ; // A fast LZ4-style byte-oriented codec; lower ratio, but cheap enough for fast networks
+
+	public CompressionCodec createCodec(int level) {
+		switch (this) {
+			case NONE:
+				return null;
+			case DEFLATE:
+				return new DeflateCodec(level);
+			case LZ:
+				return new LzCodec();
+			default:
+				throw new AssertionError();
+		}
+	}
+}
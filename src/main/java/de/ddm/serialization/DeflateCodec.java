@@ -0,0 +1,61 @@
+package de.ddm.serialization;
+
+import akka.util.ByteString;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class DeflateCodec implements CompressionCodec {
+
+	private final int level;
+
+	public DeflateCodec(int level) {
+		this.level = level;
+	}
+
+	@Override
+	public ByteString compress(byte[] source, int offset, int length) {
+		Deflater deflater = new Deflater(this.level, true);
+		try {
+			deflater.setInput(source, offset, length);
+			deflater.finish();
+
+			// Raw deflate adds a few bytes per stored block in the worst case
+			byte[] target = new byte[length + (length >> 12) + 64];
+			int targetLength = 0;
+			while (!deflater.finished()) {
+				if (targetLength == target.length)
+					target = Arrays.copyOf(target, target.length * 2);
+				targetLength += deflater.deflate(target, targetLength, target.length - targetLength);
+			}
+			return ByteString.fromArrayUnsafe(target, 0, targetLength);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	@Override
+	public void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength) {
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(source, sourceOffset, sourceLength);
+
+			int inflated = 0;
+			while (inflated < targetLength && !inflater.finished()) {
+				int n = inflater.inflate(target, targetOffset + inflated, targetLength - inflated);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				inflated += n;
+			}
+
+			if (inflated != targetLength)
+				throw new IllegalStateException("Inflated " + inflated + " instead of " + targetLength + " bytes.");
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Corrupt deflate data.", e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package de.ddm.serialization;
+
+import akka.util.ByteString;
+
+/**
+ * A fast, byte-oriented LZ77 codec in the style of the LZ4 block format: every sequence consists of a token with the
+ * literal and match lengths, the literals, and a two byte offset back into the already decoded data. Matches are
+ * found with a single-probe hash table, which trades compression ratio for speed.
+ */
+public class LzCodec implements CompressionCodec {
+
+	private static final int MIN_MATCH = 4;
+	private static final int MAX_OFFSET = 65535;
+	private static final int HASH_LOG = 14;
+
+	@Override
+	public ByteString compress(byte[] source, int offset, int length) {
+		byte[] target = new byte[length + length / 255 + 16];
+		int[] positions = new int[1 << HASH_LOG]; // Last position + 1 of each hashed four byte sequence; 0 means none
+
+		int end = offset + length;
+		int anchor = offset;
+		int position = offset;
+		int targetLength = 0;
+
+		while (position + MIN_MATCH <= end) {
+			int sequence = readInt(source, position);
+			int hash = (sequence * -1640531535) >>> (32 - HASH_LOG);
+			int candidate = positions[hash] - 1;
+			positions[hash] = position + 1;
+
+			if (candidate < 0 || position - candidate > MAX_OFFSET || readInt(source, candidate) != sequence) {
+				position++;
+				continue;
+			}
+
+			int matchLength = MIN_MATCH;
+			while (position + matchLength < end && source[candidate + matchLength] == source[position + matchLength])
+				matchLength++;
+
+			targetLength = writeSequence(source, anchor, position - anchor, position - candidate, matchLength, target, targetLength);
+			position += matchLength;
+			anchor = position;
+		}
+
+		// The last sequence only carries the remaining literals
+		targetLength = writeSequence(source, anchor, end - anchor, 0, 0, target, targetLength);
+		return ByteString.fromArrayUnsafe(target, 0, targetLength);
+	}
+
+	private static int writeSequence(byte[] source, int literalOffset, int literalLength, int matchOffset, int matchLength, byte[] target, int targetOffset) {
+		int extraMatchLength = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+		target[targetOffset++] = (byte) ((Math.min(literalLength, 15) << 4) | Math.min(extraMatchLength, 15));
+
+		if (literalLength >= 15)
+			targetOffset = writeLength(literalLength - 15, target, targetOffset);
+		System.arraycopy(source, literalOffset, target, targetOffset, literalLength);
+		targetOffset += literalLength;
+
+		if (matchLength == 0)
+			return targetOffset;
+
+		target[targetOffset++] = (byte) matchOffset;
+		target[targetOffset++] = (byte) (matchOffset >>> 8);
+		if (extraMatchLength >= 15)
+			targetOffset = writeLength(extraMatchLength - 15, target, targetOffset);
+		return targetOffset;
+	}
+
+	private static int writeLength(int length, byte[] target, int targetOffset) {
+		while (length >= 255) {
+			target[targetOffset++] = (byte) 255;
+			length -= 255;
+		}
+		target[targetOffset++] = (byte) length;
+		return targetOffset;
+	}
+
+	private static int readInt(byte[] bytes, int offset) {
+		return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16 | (bytes[offset + 3] & 0xFF) << 24;
+	}
+
+	@Override
+	public void decompress(byte[] source, int sourceOffset, int sourceLength, byte[] target, int targetOffset, int targetLength) {
+		int sourceEnd = sourceOffset + sourceLength;
+		int targetEnd = targetOffset + targetLength;
+		int input = sourceOffset;
+		int output = targetOffset;
+
+		while (input < sourceEnd) {
+			int token = source[input++] & 0xFF;
+
+			int literalLength = token >>> 4;
+			if (literalLength == 15) {
+				int next;
+				do {
+					next = source[input++] & 0xFF;
+					literalLength += next;
+				} while (next == 255);
+			}
+			System.arraycopy(source, input, target, output, literalLength);
+			input += literalLength;
+			output += literalLength;
+
+			if (input == sourceEnd)
+				break;
+
+			int matchOffset = (source[input++] & 0xFF) | (source[input++] & 0xFF) << 8;
+			int matchLength = token & 0x0F;
+			if (matchLength == 15) {
+				int next;
+				do {
+					next = source[input++] & 0xFF;
+					matchLength += next;
+				} while (next == 255);
+			}
+			matchLength += MIN_MATCH;
+
+			// Matches may overlap with their own output, so they are copied byte by byte
+			int match = output - matchOffset;
+			if (match < targetOffset)
+				throw new IllegalStateException("Corrupt LZ data: offset points before the start of the output.");
+			for (int i = 0; i < matchLength; i++)
+				target[output++] = target[match++];
+		}
+
+		if (output != targetEnd)
+			throw new IllegalStateException("Decompressed " + (output - targetOffset) + " instead of " + targetLength + " bytes.");
+	}
+}
@@ -0,0 +1,16 @@
+package de.ddm.singletons;
+
+import de.ddm.metrics.MetricsRegistry;
+
+public class MetricsRegistrySingleton {
+
+	private static MetricsRegistry singleton = new MetricsRegistry();
+
+	public static MetricsRegistry get() {
+		return singleton;
+	}
+
+	public static void set(MetricsRegistry instance) {
+		singleton = instance;
+	}
+}
@@ -0,0 +1,25 @@
+package de.ddm.singletons;
+
+import de.ddm.configuration.SystemConfiguration;
+import de.ddm.performance.PayloadPool;
+
+import java.util.Random;
+
+public class PayloadPoolSingleton {
+
+	private static PayloadPool singleton;
+
+	// The pool is created on first use, because its size depends on the parsed command line
+	public static synchronized PayloadPool get() {
+		if (singleton == null) {
+			SystemConfiguration configuration = SystemConfigurationSingleton.get();
+			singleton = new PayloadPool(new Random(4711), configuration.getPerformanceTestMessageSizeInBytes(), configuration.getPerformanceTestPayloadPoolSize(),
+					configuration.getPerformanceTestPayloadMode(), configuration.getPerformanceTestPayloadEntropy());
+		}
+		return singleton;
+	}
+
+	public static synchronized void set(PayloadPool instance) {
+		singleton = instance;
+	}
+}
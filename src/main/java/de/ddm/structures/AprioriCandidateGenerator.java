@@ -0,0 +1,62 @@
+package de.ddm.structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the (n+1)-ary inclusion dependency candidates from the valid n-ary inclusion dependencies between one
+ * dependent and one referenced relation, as in MIND: two valid dependencies that agree on their first n-1 attribute
+ * pairs are joined on their last pairs, and the join is only a candidate if all of its n-ary projections are valid.
+ */
+public class AprioriCandidateGenerator {
+
+	public static List<EncodedInclusionDependency> generate(List<EncodedInclusionDependency> validInclusionDependencies) {
+		Set<EncodedInclusionDependency> valid = new HashSet<>(validInclusionDependencies);
+
+		// Dependencies with the same prefix, i.e. the same first n-1 attribute pairs, can be joined
+		Map<EncodedInclusionDependency, List<EncodedInclusionDependency>> prefixGroups = new HashMap<>();
+		for (EncodedInclusionDependency inclusionDependency : validInclusionDependencies)
+			prefixGroups.computeIfAbsent(inclusionDependency.without(inclusionDependency.arity() - 1), prefix -> new ArrayList<>())
+					.add(inclusionDependency);
+
+		List<EncodedInclusionDependency> candidates = new ArrayList<>();
+		for (List<EncodedInclusionDependency> group : prefixGroups.values()) {
+			for (EncodedInclusionDependency first : group) {
+				for (EncodedInclusionDependency second : group) {
+					int last = first.arity() - 1;
+					// The dependent columns stay sorted and no referenced column may occur twice
+					if (first.getDependentColumns()[last] >= second.getDependentColumns()[last] ||
+							first.getReferencedColumns()[last] == second.getReferencedColumns()[last])
+						continue;
+
+					EncodedInclusionDependency candidate = join(first, second);
+					if (allProjectionsValid(candidate, valid))
+						candidates.add(candidate);
+				}
+			}
+		}
+		return candidates;
+	}
+
+	private static EncodedInclusionDependency join(EncodedInclusionDependency first, EncodedInclusionDependency second) {
+		int arity = first.arity();
+		int[] dependentColumns = Arrays.copyOf(first.getDependentColumns(), arity + 1);
+		int[] referencedColumns = Arrays.copyOf(first.getReferencedColumns(), arity + 1);
+		dependentColumns[arity] = second.getDependentColumns()[arity - 1];
+		referencedColumns[arity] = second.getReferencedColumns()[arity - 1];
+		return new EncodedInclusionDependency(dependentColumns, referencedColumns);
+	}
+
+	private static boolean allProjectionsValid(EncodedInclusionDependency candidate, Set<EncodedInclusionDependency> valid) {
+		// Dropping one of the last two pairs yields the joined dependencies, which are valid by construction
+		for (int position = 0; position < candidate.arity() - 2; position++)
+			if (!valid.contains(candidate.without(position)))
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,92 @@
+package de.ddm.structures;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rejects unary inclusion dependency candidates on the sketches of their columns before they are validated exactly,
+ * and counts how many candidates every check rejected. The checks run from the cheapest to the most expensive one.
+ */
+@Getter
+public class CandidatePruner {
+
+	private final ColumnSketch[] sketches;
+	private final boolean enabled;
+
+	private long candidates = 0;
+	private long prunedByCardinality = 0;
+	private long prunedByRange = 0;
+	private long prunedByBloomFilter = 0;
+	private long savedComparisons = 0; // The values that the exact validation of the pruned candidates would have merged
+
+	/**
+	 * @param columnValues the sorted distinct values of all columns
+	 * @param enabled if false, the pruner only counts the candidates and accepts all of them
+	 */
+	public CandidatePruner(int[][] columnValues, boolean enabled, int bloomFilterSize, int bloomFilterHashFunctions) {
+		this.enabled = enabled;
+		this.sketches = new ColumnSketch[columnValues.length];
+		if (enabled)
+			for (int column = 0; column < columnValues.length; column++)
+				this.sketches[column] = new ColumnSketch(columnValues[column], bloomFilterSize, bloomFilterHashFunctions);
+	}
+
+	/**
+	 * @return false if the dependent column can not be included in the referenced column
+	 */
+	public boolean isCandidate(int dependentColumn, int referencedColumn) {
+		this.candidates++;
+		if (!this.enabled)
+			return true;
+
+		ColumnSketch dependent = this.sketches[dependentColumn];
+		ColumnSketch referenced = this.sketches[referencedColumn];
+		if (!dependent.fitsCardinalityOf(referenced))
+			this.prunedByCardinality++;
+		else if (!dependent.fitsRangeOf(referenced))
+			this.prunedByRange++;
+		else if (!dependent.fitsBloomFilterOf(referenced))
+			this.prunedByBloomFilter++;
+		else
+			return true;
+
+		this.savedComparisons += dependent.getCardinality() + referenced.getCardinality();
+		return false;
+	}
+
+	public long getPruned() {
+		return this.prunedByCardinality + this.prunedByRange + this.prunedByBloomFilter;
+	}
+
+	/**
+	 * @param numberOfInclusionDependencies the number of candidates that the exact validation confirmed
+	 * @return a human-readable summary of the pruning; the false-positive rate is the fraction of all non-dependencies
+	 * that the sketches could not reject
+	 */
+	public List<String> describe(long numberOfInclusionDependencies) {
+		List<String> lines = new ArrayList<>();
+		if (!this.enabled) {
+			lines.add(String.format(Locale.ROOT, "Candidate pruning disabled: validated all %d candidates exactly.", this.candidates));
+			return lines;
+		}
+
+		long validated = this.candidates - this.getPruned();
+		long falsePositives = validated - numberOfInclusionDependencies;
+		long nonDependencies = this.candidates - numberOfInclusionDependencies;
+		double falsePositiveRate = nonDependencies == 0 ? 0 : (double) falsePositives / nonDependencies;
+
+		double fillRatio = 0;
+		for (ColumnSketch sketch : this.sketches)
+			fillRatio += sketch.getBloomFilterFillRatio();
+		fillRatio = this.sketches.length == 0 ? 0 : fillRatio / this.sketches.length;
+
+		lines.add(String.format(Locale.ROOT, "Pruned %d of %d candidates (%d by cardinality, %d by range, %d by Bloom filter), saving %d value comparisons.",
+				this.getPruned(), this.candidates, this.prunedByCardinality, this.prunedByRange, this.prunedByBloomFilter, this.savedComparisons));
+		lines.add(String.format(Locale.ROOT, "%d of the %d validated candidates were no inclusion dependencies (false-positive rate %.4f, average Bloom filter fill ratio %.4f).",
+				falsePositives, validated, falsePositiveRate, fillRatio));
+		return lines;
+	}
+}
@@ -0,0 +1,45 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks which columns every worker holds, so that every column is sent to a worker (almost) only once. A column
+ * counts as held only after the worker returned the result of a task that carried it: the LargeMessageProxy emits
+ * concurrent transfers round-robin, so a later, smaller task may overtake the earlier one with the column's values.
+ * Until then, every task carries the column again.
+ */
+public class ColumnReplicas<W> {
+
+	private final Map<W, IntOpenHashSet> confirmedColumns = new HashMap<>();
+
+	/**
+	 * @return the distinct columns of the given column lists that the worker does not hold for sure, in their order
+	 */
+	public int[] missing(W worker, int[]... columnLists) {
+		IntOpenHashSet confirmed = this.confirmedColumns.getOrDefault(worker, new IntOpenHashSet());
+		IntOpenHashSet seen = new IntOpenHashSet();
+		IntArrayList missing = new IntArrayList();
+		for (int[] columns : columnLists)
+			for (int column : columns)
+				if (!confirmed.contains(column) && seen.add(column))
+					missing.add(column);
+		return missing.toIntArray();
+	}
+
+	/**
+	 * Records that the worker holds the given columns, because it returned the result of a task with them.
+	 */
+	public void confirm(W worker, int[]... columnLists) {
+		IntOpenHashSet confirmed = this.confirmedColumns.computeIfAbsent(worker, w -> new IntOpenHashSet());
+		for (int[] columns : columnLists)
+			confirmed.addAll(IntArrayList.wrap(columns));
+	}
+
+	public void remove(W worker) {
+		this.confirmedColumns.remove(worker);
+	}
+}
@@ -0,0 +1,67 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import lombok.Getter;
+
+/**
+ * A compact summary of the sorted distinct values of a column: their cardinality, their minimum and maximum, and a
+ * Bloom filter. If a column A is included in a column B, then A has at most as many values as B, A's range lies within
+ * B's range, and every bit of A's Bloom filter is also set in B's Bloom filter (both filters use the same size and hash
+ * functions). A sketch can therefore reject a candidate without any false negatives, but not confirm it.
+ */
+@Getter
+public class ColumnSketch {
+
+	private final int cardinality;
+	private final int min;
+	private final int max;
+	private final long[] bloomFilter;
+
+	/**
+	 * @param values the sorted distinct values of the column
+	 * @param bloomFilterSize the number of bits of the Bloom filter; must be a multiple of 64
+	 * @param bloomFilterHashFunctions the number of bits that every value sets in the Bloom filter
+	 */
+	public ColumnSketch(int[] values, int bloomFilterSize, int bloomFilterHashFunctions) {
+		this.cardinality = values.length;
+		this.min = values.length == 0 ? Integer.MAX_VALUE : values[0];
+		this.max = values.length == 0 ? Integer.MIN_VALUE : values[values.length - 1];
+		this.bloomFilter = new long[bloomFilterSize / 64];
+
+		for (int value : values) {
+			// Double hashing derives all hash functions from the two halves of one 64 bit hash
+			long hash = HashCommon.murmurHash3((long) value);
+			int hash1 = (int) hash;
+			int hash2 = (int) (hash >>> 32);
+			for (int i = 0; i < bloomFilterHashFunctions; i++) {
+				int bit = Math.floorMod(hash1 + i * hash2, bloomFilterSize);
+				this.bloomFilter[bit >>> 6] |= 1L << bit;
+			}
+		}
+	}
+
+	public boolean fitsCardinalityOf(ColumnSketch referenced) {
+		return this.cardinality <= referenced.cardinality;
+	}
+
+	public boolean fitsRangeOf(ColumnSketch referenced) {
+		return this.cardinality == 0 || (referenced.min <= this.min && this.max <= referenced.max);
+	}
+
+	public boolean fitsBloomFilterOf(ColumnSketch referenced) {
+		for (int i = 0; i < this.bloomFilter.length; i++)
+			if ((this.bloomFilter[i] & ~referenced.bloomFilter[i]) != 0)
+				return false;
+		return true;
+	}
+
+	/**
+	 * @return the fraction of set bits in the Bloom filter; the fuller the filter, the fewer candidates it rejects
+	 */
+	public double getBloomFilterFillRatio() {
+		long bits = 0;
+		for (long word : this.bloomFilter)
+			bits += Long.bitCount(word);
+		return (double) bits / (this.bloomFilter.length * 64);
+	}
+}
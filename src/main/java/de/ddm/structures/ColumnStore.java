@@ -0,0 +1,182 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import lombok.Getter;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Holds all relations of the input data in dictionary-encoded columnar form.
+ */
+public class ColumnStore {
+
+	@Getter
+	private final DictionaryMode dictionaryMode;
+	@Getter
+	private final Dictionary sharedDictionary = new Dictionary();
+
+	private final EncodedRelation[] relations;
+
+	private IdentityHashMap<EncodedColumn, int[]> ranks = null; // The ranks of the values of per-column dictionaries, once they are needed
+
+	public ColumnStore(int numberOfRelations, DictionaryMode dictionaryMode) {
+		this.relations = new EncodedRelation[numberOfRelations];
+		this.dictionaryMode = dictionaryMode;
+	}
+
+	public EncodedRelation addRelation(int id, File file, String[] header) {
+		this.relations[id] = new EncodedRelation(id, file, header, this.dictionaryMode, this.sharedDictionary);
+		return this.relations[id];
+	}
+
+	public EncodedRelation getRelation(int id) {
+		return this.relations[id];
+	}
+
+	public int getNumberOfRelations() {
+		return this.relations.length;
+	}
+
+	/**
+	 * @return the sorted distinct values of the column as codes that are comparable across columns: the codes of the
+	 * shared dictionary or, with one dictionary per column, the ranks of the values among the values of all columns
+	 */
+	public int[] distinctSharedCodes(EncodedColumn column) {
+		int[] codes = column.distinctCodes();
+		if (this.dictionaryMode == DictionaryMode.PER_COLUMN) {
+			int[] ranks = this.ranksOf(column);
+			for (int i = 0; i < codes.length; i++)
+				codes[i] = ranks[codes[i]];
+			Arrays.sort(codes);
+		}
+		return codes;
+	}
+
+	/**
+	 * @return the codes of the column row by row as codes that are comparable across columns; NULL stays NULL
+	 */
+	public int[] sharedCodes(EncodedColumn column) {
+		int[] codes = column.getCodes().toIntArray();
+		if (this.dictionaryMode == DictionaryMode.PER_COLUMN) {
+			int[] ranks = this.ranksOf(column);
+			for (int i = 0; i < codes.length; i++)
+				if (codes[i] != Dictionary.NULL)
+					codes[i] = ranks[codes[i]];
+		}
+		return codes;
+	}
+
+	private int[] ranksOf(EncodedColumn column) {
+		if (this.ranks == null)
+			this.ranks = this.rankValues();
+		return this.ranks.get(column);
+	}
+
+	/**
+	 * Merges the sorted values of all per-column dictionaries, so that equal values of different columns get the same
+	 * rank without a shared dictionary that would hold every distinct value once more.
+	 *
+	 * @return for every column, the rank of the value of every code of its dictionary
+	 */
+	private IdentityHashMap<EncodedColumn, int[]> rankValues() {
+		List<EncodedColumn> columns = new ArrayList<>();
+		for (EncodedRelation relation : this.relations)
+			columns.addAll(Arrays.asList(relation.getColumns()));
+
+		int[][] sortedCodes = new int[columns.size()][];
+		int[][] ranks = new int[columns.size()][];
+		for (int i = 0; i < columns.size(); i++) {
+			Dictionary dictionary = columns.get(i).getDictionary();
+			sortedCodes[i] = IntStream.range(0, dictionary.size()).toArray();
+			IntArrays.quickSort(sortedCodes[i], (code1, code2) -> dictionary.decode(code1).compareTo(dictionary.decode(code2)));
+			ranks[i] = new int[dictionary.size()];
+		}
+
+		// The queue holds every column with values left, ordered by its smallest value that has no rank yet
+		int[] positions = new int[columns.size()];
+		PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, columns.size()),
+				Comparator.comparing(i -> columns.get(i).getDictionary().decode(sortedCodes[i][positions[i]])));
+		for (int i = 0; i < columns.size(); i++)
+			if (sortedCodes[i].length > 0)
+				queue.add(i);
+
+		int rank = -1;
+		String previousValue = null;
+		while (!queue.isEmpty()) {
+			int i = queue.poll();
+			int code = sortedCodes[i][positions[i]];
+			String value = columns.get(i).getDictionary().decode(code);
+			if (!value.equals(previousValue)) {
+				rank++;
+				previousValue = value;
+			}
+			ranks[i][code] = rank;
+			if (++positions[i] < sortedCodes[i].length)
+				queue.add(i);
+		}
+
+		IdentityHashMap<EncodedColumn, int[]> ranksByColumn = new IdentityHashMap<>();
+		for (int i = 0; i < columns.size(); i++)
+			ranksByColumn.put(columns.get(i), ranks[i]);
+		return ranksByColumn;
+	}
+
+	public void trim() {
+		for (EncodedRelation relation : this.relations)
+			for (EncodedColumn column : relation.getColumns())
+				column.trim();
+	}
+
+	/**
+	 * Measures the retained heap size of every column's codes and dictionary with JOL. This walks the entire object
+	 * graph of the store, so it should only be called once after the input has been read.
+	 *
+	 * @return one line per column and one line for the shared dictionary
+	 */
+	public List<String> describeFootprint() {
+		List<String> lines = new ArrayList<>();
+		IdentityHashMap<Dictionary, Boolean> measuredDictionaries = new IdentityHashMap<>();
+		long totalSize = 0;
+
+		for (EncodedRelation relation : this.relations) {
+			for (EncodedColumn column : relation.getColumns()) {
+				long codesSize = GraphLayout.parseInstance(column.getCodes()).totalSize();
+				totalSize += codesSize;
+
+				String dictionarySize = "shared";
+				if (this.dictionaryMode == DictionaryMode.PER_COLUMN) {
+					long size = GraphLayout.parseInstance(column.getDictionary()).totalSize();
+					dictionarySize = toMB(size);
+					totalSize += size;
+				}
+				measuredDictionaries.put(column.getDictionary(), true);
+
+				lines.add(String.format(Locale.ROOT, "%s.%s: %d rows, %d distinct values, codes %s, dictionary %s",
+						relation.getName(), column.getName(), column.size(), column.getDictionary().size(), toMB(codesSize), dictionarySize));
+			}
+		}
+
+		if (this.dictionaryMode == DictionaryMode.SHARED) {
+			long size = GraphLayout.parseInstance(this.sharedDictionary).totalSize();
+			totalSize += size;
+			lines.add(String.format(Locale.ROOT, "Shared dictionary: %d distinct values, %s", this.sharedDictionary.size(), toMB(size)));
+		}
+
+		lines.add(String.format(Locale.ROOT, "Column store: %d relations, %d dictionaries, %s in total",
+				this.relations.length, measuredDictionaries.size(), toMB(totalSize)));
+		return lines;
+	}
+
+	private static String toMB(long bytes) {
+		return String.format(Locale.ROOT, "%.2f MB", bytes / (1024.0 * 1024.0));
+	}
+}
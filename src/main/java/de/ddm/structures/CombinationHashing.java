@@ -0,0 +1,54 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+/**
+ * Checks n-ary inclusion dependencies on the row-aligned codes of their columns. Instead of materializing the value
+ * combinations of every row, e.g. as concatenated strings, every combination is represented by a 64 bit hash of its
+ * codes. Two different combinations collide with a probability of about 2^-64 per pair, so a reported dependency is
+ * wrong only in the rare case that every missing combination collides with an existing one.
+ * <p>
+ * Like the unary discovery ignores NULL values, rows with a NULL in any of the columns are ignored.
+ */
+public class CombinationHashing {
+
+	private static final long NULL_COMBINATION = Long.MIN_VALUE;
+
+	/**
+	 * @return the hashes of the distinct value combinations of the columns
+	 */
+	public static LongOpenHashSet distinctHashes(int[][] columns) {
+		LongOpenHashSet hashes = new LongOpenHashSet();
+		for (int row = 0; row < columns[0].length; row++) {
+			long hash = hash(columns, row);
+			if (hash != NULL_COMBINATION)
+				hashes.add(hash);
+		}
+		return hashes;
+	}
+
+	/**
+	 * @return true if the hash of every value combination of the dependent columns is in the referenced hashes
+	 */
+	public static boolean isIncluded(int[][] dependentColumns, LongOpenHashSet referencedHashes) {
+		for (int row = 0; row < dependentColumns[0].length; row++) {
+			long hash = hash(dependentColumns, row);
+			if (hash != NULL_COMBINATION && !referencedHashes.contains(hash))
+				return false;
+		}
+		return true;
+	}
+
+	private static long hash(int[][] columns, int row) {
+		long hash = 0;
+		for (int[] column : columns) {
+			int code = column[row];
+			if (code == Dictionary.NULL)
+				return NULL_COMBINATION;
+			// Mixing after every code makes the hash depend on the order of the codes
+			hash = HashCommon.murmurHash3(hash * 0x9E3779B97F4A7C15L + code + 1);
+		}
+		return hash == NULL_COMBINATION ? NULL_COMBINATION + 1 : hash;
+	}
+}
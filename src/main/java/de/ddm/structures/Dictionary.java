@@ -0,0 +1,41 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Maps the distinct values of one or more columns to dense int codes 0, 1, 2, ... in the order of their first
+ * occurrence. Null values are not stored; they are encoded as NULL.
+ */
+public class Dictionary {
+
+	public static final int NULL = -1;
+
+	private final Object2IntOpenHashMap<String> codes = new Object2IntOpenHashMap<>();
+	private final ObjectArrayList<String> values = new ObjectArrayList<>();
+
+	public Dictionary() {
+		this.codes.defaultReturnValue(NULL);
+	}
+
+	public int encode(String value) {
+		if (value == null)
+			return NULL;
+
+		int code = this.codes.getInt(value);
+		if (code == NULL) {
+			code = this.values.size();
+			this.codes.put(value, code);
+			this.values.add(value);
+		}
+		return code;
+	}
+
+	public String decode(int code) {
+		return code == NULL ? null : this.values.get(code);
+	}
+
+	public int size() {
+		return this.values.size();
+	}
+}
@@ -0,0 +1,7 @@
+package de.ddm.structures;
+
+public enum DictionaryMode {
+
+	SHARED, // One dictionary for all columns; equal values have equal codes in all columns, so columns can be compared on their codes
+	PER_COLUMN // One dictionary per column; smaller dictionaries, whose codes are compared across columns by merging their sorted values
+}
@@ -0,0 +1,7 @@
+package de.ddm.structures;
+
+public enum DiscoveryStrategy {
+
+	PAIRS, // Every task checks a dependent column against candidate columns on their full value sets; every worker may end up holding all columns
+	PARTITIONED // The distinct values are hash-partitioned across the workers, which validate all candidates on their partition only
+}
@@ -0,0 +1,46 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * One attribute of a relation as a list of dictionary codes, one per row.
+ */
+@Getter
+public class EncodedColumn {
+
+	private final String name;
+	private final Dictionary dictionary;
+	private final IntArrayList codes = new IntArrayList();
+
+	public EncodedColumn(String name, Dictionary dictionary) {
+		this.name = name;
+		this.dictionary = dictionary;
+	}
+
+	public void add(String value) {
+		this.codes.add(this.dictionary.encode(value));
+	}
+
+	public int size() {
+		return this.codes.size();
+	}
+
+	/**
+	 * @return the sorted distinct codes of the column without NULL
+	 */
+	public int[] distinctCodes() {
+		IntOpenHashSet distinct = new IntOpenHashSet(this.codes);
+		distinct.remove(Dictionary.NULL);
+		int[] sorted = distinct.toIntArray();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+
+	public void trim() {
+		this.codes.trim();
+	}
+}
@@ -0,0 +1,58 @@
+package de.ddm.structures;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * An (n-ary) inclusion dependency or candidate on the consecutive column numbers of the master, e.g. [0, 2] c [5, 7].
+ * The dependent columns are sorted and belong to one relation; the referenced columns belong to one relation and
+ * follow the order of their dependent columns.
+ */
+@Getter
+@AllArgsConstructor
+public class EncodedInclusionDependency {
+
+	private final int[] dependentColumns;
+	private final int[] referencedColumns;
+
+	public int arity() {
+		return this.dependentColumns.length;
+	}
+
+	/**
+	 * @return the dependency without the attribute pair at the given position
+	 */
+	public EncodedInclusionDependency without(int position) {
+		int[] dependentColumns = new int[this.arity() - 1];
+		int[] referencedColumns = new int[this.arity() - 1];
+		for (int i = 0, j = 0; i < this.arity(); i++) {
+			if (i == position)
+				continue;
+			dependentColumns[j] = this.dependentColumns[i];
+			referencedColumns[j] = this.referencedColumns[i];
+			j++;
+		}
+		return new EncodedInclusionDependency(dependentColumns, referencedColumns);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		EncodedInclusionDependency other = (EncodedInclusionDependency) o;
+		return Arrays.equals(this.dependentColumns, other.dependentColumns) &&
+				Arrays.equals(this.referencedColumns, other.referencedColumns);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(this.dependentColumns) + Arrays.hashCode(this.referencedColumns);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(this.dependentColumns) + " c " + Arrays.toString(this.referencedColumns);
+	}
+}
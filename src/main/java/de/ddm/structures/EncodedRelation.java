@@ -0,0 +1,39 @@
+package de.ddm.structures;
+
+import lombok.Getter;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * A relation of the input data in columnar form: every attribute is a dictionary-encoded column.
+ */
+@Getter
+public class EncodedRelation {
+
+	private final int id;
+	private final File file;
+	private final EncodedColumn[] columns;
+
+	public EncodedRelation(int id, File file, String[] header, DictionaryMode dictionaryMode, Dictionary sharedDictionary) {
+		this.id = id;
+		this.file = file;
+		this.columns = new EncodedColumn[header.length];
+		for (int i = 0; i < header.length; i++)
+			this.columns[i] = new EncodedColumn(header[i], dictionaryMode == DictionaryMode.SHARED ? sharedDictionary : new Dictionary());
+	}
+
+	public void append(List<String[]> batch) {
+		for (String[] row : batch)
+			for (int i = 0; i < this.columns.length; i++)
+				this.columns[i].add(i < row.length ? row[i] : null);
+	}
+
+	public int getNumberOfRows() {
+		return this.columns.length == 0 ? 0 : this.columns[0].size();
+	}
+
+	public String getName() {
+		return this.file.getName().split("\\.")[0];
+	}
+}
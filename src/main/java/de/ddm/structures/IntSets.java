@@ -0,0 +1,25 @@
+package de.ddm.structures;
+
+/**
+ * Set operations on sorted arrays of distinct ints, e.g. the dictionary codes of columns.
+ */
+public class IntSets {
+
+	/**
+	 * @return true if every value of the sorted subset is also in the sorted superset
+	 */
+	public static boolean isSubset(int[] subset, int[] superset) {
+		if (subset.length > superset.length)
+			return false;
+
+		int j = 0;
+		for (int value : subset) {
+			while (j < superset.length && superset[j] < value)
+				j++;
+			if (j == superset.length || superset[j] != value)
+				return false;
+			j++;
+		}
+		return true;
+	}
+}
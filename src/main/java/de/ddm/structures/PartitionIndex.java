@@ -0,0 +1,60 @@
+package de.ddm.structures;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+
+import java.util.BitSet;
+
+/**
+ * Validates inclusion dependency candidates on one partition of the distinct values in the style of SPIDER: the sorted
+ * value lists of all columns are merged, and for every value, the candidates of each column that contains the value
+ * are intersected with the set of columns that contain the value. A column A is included in a column B on the
+ * partition if B survives in the candidates of A. A candidate is valid overall if it survives on all partitions that
+ * contain values of A.
+ */
+public class PartitionIndex {
+
+	/**
+	 * @param columnIds the global ids of the columns that have values in this partition
+	 * @param values the sorted distinct values of these columns in this partition
+	 * @param numberOfColumns the number of columns overall
+	 * @return for every column the set of global column ids that include it on this partition
+	 */
+	public static BitSet[] validate(int[] columnIds, int[][] values, int numberOfColumns) {
+		BitSet[] candidates = new BitSet[columnIds.length];
+		for (int i = 0; i < columnIds.length; i++) {
+			candidates[i] = new BitSet(numberOfColumns);
+			candidates[i].set(0, numberOfColumns);
+			candidates[i].clear(columnIds[i]);
+		}
+
+		int[] positions = new int[columnIds.length];
+		IntHeapPriorityQueue columns = new IntHeapPriorityQueue(columnIds.length,
+				(a, b) -> Integer.compare(values[a][positions[a]], values[b][positions[b]]));
+		for (int i = 0; i < columnIds.length; i++)
+			if (values[i].length > 0)
+				columns.enqueue(i);
+
+		BitSet attributes = new BitSet(numberOfColumns);
+		IntArrayList containing = new IntArrayList();
+		while (!columns.isEmpty()) {
+			int value = values[columns.firstInt()][positions[columns.firstInt()]];
+
+			attributes.clear();
+			containing.clear();
+			while (!columns.isEmpty() && values[columns.firstInt()][positions[columns.firstInt()]] == value) {
+				int column = columns.dequeueInt();
+				attributes.set(columnIds[column]);
+				containing.add(column);
+			}
+
+			for (int i = 0; i < containing.size(); i++) {
+				int column = containing.getInt(i);
+				candidates[column].and(attributes);
+				if (++positions[column] < values[column].length)
+					columns.enqueue(column);
+			}
+		}
+		return candidates;
+	}
+}
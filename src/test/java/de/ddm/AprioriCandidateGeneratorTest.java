@@ -0,0 +1,51 @@
+package de.ddm;
+
+import de.ddm.structures.AprioriCandidateGenerator;
+import de.ddm.structures.EncodedInclusionDependency;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AprioriCandidateGeneratorTest {
+
+	private static EncodedInclusionDependency ind(int[] dependentColumns, int[] referencedColumns) {
+		return new EncodedInclusionDependency(dependentColumns, referencedColumns);
+	}
+
+	@Test
+	public void testJoinsBinaryToTernaryCandidates() {
+		//given
+		List<EncodedInclusionDependency> valid = Arrays.asList(
+				ind(new int[]{0, 1}, new int[]{5, 6}),
+				ind(new int[]{0, 2}, new int[]{5, 7}),
+				ind(new int[]{1, 2}, new int[]{6, 7}),
+				ind(new int[]{0, 3}, new int[]{5, 8}));
+
+		//when
+		List<EncodedInclusionDependency> candidates = AprioriCandidateGenerator.generate(valid);
+
+		//then
+		// [0, 1, 3] c [5, 6, 8] and [0, 2, 3] c [5, 7, 8] miss their projections [1, 3] c [6, 8] and [2, 3] c [7, 8]
+		assertEquals(Collections.singletonList(ind(new int[]{0, 1, 2}, new int[]{5, 6, 7})), candidates);
+	}
+
+	@Test
+	public void testNeverRepeatsReferencedColumns() {
+		//given
+		List<EncodedInclusionDependency> valid = Arrays.asList(
+				ind(new int[]{0, 1}, new int[]{5, 6}),
+				ind(new int[]{0, 2}, new int[]{5, 6}),
+				ind(new int[]{1, 2}, new int[]{6, 6}));
+
+		//when
+		List<EncodedInclusionDependency> candidates = AprioriCandidateGenerator.generate(valid);
+
+		//then
+		assertTrue(candidates.isEmpty());
+	}
+}
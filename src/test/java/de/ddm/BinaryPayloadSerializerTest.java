@@ -0,0 +1,104 @@
+package de.ddm;
+
+import akka.actor.testkit.typed.javadsl.TestKitJunitResource;
+import akka.actor.testkit.typed.javadsl.TestProbe;
+import akka.serialization.Serialization;
+import akka.serialization.SerializationExtension;
+import akka.serialization.Serializer;
+import akka.serialization.Serializers;
+import akka.util.ByteString;
+import de.ddm.actors.Master;
+import de.ddm.actors.Worker;
+import de.ddm.actors.patterns.LargeMessageProxy;
+import de.ddm.serialization.BinaryPayloadSerializer;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryPayloadSerializerTest {
+
+	@ClassRule
+	public static final TestKitJunitResource testKit = new TestKitJunitResource(SystemConfigurationSingleton.get().toAkkaTestConfig());
+
+	private Object roundTrip(Object message) {
+		Serialization serialization = SerializationExtension.get(testKit.system());
+		Serializer serializer = serialization.findSerializerFor(message);
+		assertTrue(serializer instanceof BinaryPayloadSerializer);
+
+		byte[] bytes = serialization.serialize(message).get();
+		return serialization.deserialize(bytes, serializer.identifier(), Serializers.manifestFor(serializer, message)).get();
+	}
+
+	@Test
+	public void testRoundTripOfDataMessageDirect() {
+		//given
+		final TestProbe<Worker.Message> probe = testKit.createTestProbe();
+		final byte[] data = new byte[1024];
+		new Random(4711).nextBytes(data);
+
+		//when
+		Master.DataMessageDirect result = (Master.DataMessageDirect) this.roundTrip(new Master.DataMessageDirect(probe.getRef(), data));
+
+		//then
+		assertEquals(probe.getRef(), result.getWorker());
+		assertArrayEquals(data, result.getData());
+	}
+
+	@Test
+	public void testRoundTripOfStreamDataMessage() {
+		//given
+		final TestProbe<Master.Message> probe = testKit.createTestProbe();
+		final byte[] data = new byte[64];
+		new Random(4711).nextBytes(data);
+
+		//when
+		Worker.StreamDataMessage result = (Worker.StreamDataMessage) this.roundTrip(new Worker.StreamDataMessage(probe.getRef(), 1L << 40, data));
+
+		//then
+		assertEquals(probe.getRef(), result.getSender());
+		assertEquals(1L << 40, result.getSequence());
+		assertArrayEquals(data, result.getData());
+	}
+
+	@Test
+	public void testRoundTripOfBytesMessageSlice() {
+		//given
+		final byte[] data = new byte[1024];
+		new Random(4711).nextBytes(data);
+		final ByteString slice = ByteString.fromArrayUnsafe(data).slice(100, 600);
+
+		//when
+		LargeMessageProxy.BytesMessage result = (LargeMessageProxy.BytesMessage) this.roundTrip(new LargeMessageProxy.BytesMessage(slice, 3, 7, false));
+
+		//then
+		assertEquals(slice, result.getBytes());
+		assertEquals(3, result.getSenderTransmissionKey());
+		assertEquals(7, result.getReceiverTransmissionKey());
+	}
+
+	@Test
+	public void testBytesMessageFromArrayIsAView() throws Exception {
+		//given
+		final BinaryPayloadSerializer serializer = (BinaryPayloadSerializer) SerializationExtension.get(testKit.system())
+				.serializerFor(LargeMessageProxy.BytesMessage.class);
+		final byte[] data = new byte[256];
+		new Random(4711).nextBytes(data);
+		final LargeMessageProxy.BytesMessage message = new LargeMessageProxy.BytesMessage(ByteString.fromArrayUnsafe(data), 3, 7, true);
+		final byte[] bytes = serializer.toBinary(message);
+
+		//when
+		LargeMessageProxy.BytesMessage result = (LargeMessageProxy.BytesMessage) serializer.fromBinary(bytes, serializer.manifest(message));
+		bytes[bytes.length - 1]++;
+
+		//then
+		assertEquals(data.length, result.getBytes().length());
+		assertEquals(bytes[bytes.length - 1], result.getBytes().apply(data.length - 1));
+		assertTrue(result.isCompressed());
+	}
+}
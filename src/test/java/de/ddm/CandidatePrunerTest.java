@@ -0,0 +1,76 @@
+package de.ddm;
+
+import de.ddm.structures.CandidatePruner;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CandidatePrunerTest {
+
+	private static final int[][] COLUMN_VALUES = {
+			{1, 2, 3, 4, 5, 6, 7, 8}, // 0: the referenced column of the checks
+			{2, 4, 6}, // 1: included in 0
+			{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, // 2: more values than 0
+			{0, 3}, // 3: out of the range of 0
+			{3, 5, 100}, // 4: out of the range of 0
+	};
+
+	private static boolean isSubset(int[] dependent, int[] referenced) {
+		for (int value : dependent)
+			if (Arrays.binarySearch(referenced, value) < 0)
+				return false;
+		return true;
+	}
+
+	@Test
+	public void testPrunesWithoutFalseNegatives() {
+		//given
+		CandidatePruner pruner = new CandidatePruner(COLUMN_VALUES, true, 256, 2);
+
+		//when
+		boolean included = pruner.isCandidate(1, 0);
+		boolean tooLarge = pruner.isCandidate(2, 0);
+		boolean outOfRange = pruner.isCandidate(3, 0);
+
+		//then
+		assertTrue(included);
+		assertFalse(tooLarge);
+		assertFalse(outOfRange);
+		assertEquals(3, pruner.getCandidates());
+		assertEquals(1, pruner.getPrunedByCardinality());
+		assertEquals(1, pruner.getPrunedByRange());
+		assertEquals(2, pruner.getPruned());
+		assertEquals(10 + 8 + 2 + 8, pruner.getSavedComparisons());
+	}
+
+	@Test
+	public void testAcceptsEveryInclusionOfTheColumns() {
+		//given
+		CandidatePruner pruner = new CandidatePruner(COLUMN_VALUES, true, 64, 3);
+
+		//when
+		//then
+		for (int dependent = 0; dependent < COLUMN_VALUES.length; dependent++)
+			for (int referenced = 0; referenced < COLUMN_VALUES.length; referenced++)
+				if (dependent != referenced && isSubset(COLUMN_VALUES[dependent], COLUMN_VALUES[referenced]))
+					assertTrue(dependent + " c " + referenced, pruner.isCandidate(dependent, referenced));
+	}
+
+	@Test
+	public void testDisabledPrunerAcceptsAllCandidates() {
+		//given
+		CandidatePruner pruner = new CandidatePruner(COLUMN_VALUES, false, 256, 2);
+
+		//when
+		boolean tooLarge = pruner.isCandidate(2, 0);
+
+		//then
+		assertTrue(tooLarge);
+		assertEquals(1, pruner.getCandidates());
+		assertEquals(0, pruner.getPruned());
+	}
+}
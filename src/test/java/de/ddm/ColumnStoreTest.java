@@ -0,0 +1,57 @@
+package de.ddm;
+
+import de.ddm.structures.ColumnStore;
+import de.ddm.structures.Dictionary;
+import de.ddm.structures.DictionaryMode;
+import de.ddm.structures.EncodedColumn;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ColumnStoreTest {
+
+	private static final String[] VALUES_BY_RANK = {"a", "b", "c", "d", "x"};
+
+	private static ColumnStore columnStore(DictionaryMode dictionaryMode) {
+		ColumnStore columnStore = new ColumnStore(2, dictionaryMode);
+		columnStore.addRelation(0, new File("first.csv"), new String[]{"A", "B"})
+				.append(Arrays.asList(new String[]{"b", "x"}, new String[]{"d", null}, new String[]{"b", "a"}));
+		columnStore.addRelation(1, new File("second.csv"), new String[]{"C"})
+				.append(Arrays.asList(new String[]{"d"}, new String[]{"a"}, new String[]{"b"}, new String[]{"c"}));
+		return columnStore;
+	}
+
+	private static String[] decodeShared(ColumnStore columnStore, int[] codes) {
+		return Arrays.stream(codes).mapToObj(code -> columnStore.getSharedDictionary().decode(code)).toArray(String[]::new);
+	}
+
+	private static String[] decodeRanks(int[] ranks) {
+		return Arrays.stream(ranks).mapToObj(rank -> rank == Dictionary.NULL ? null : VALUES_BY_RANK[rank]).toArray(String[]::new);
+	}
+
+	@Test
+	public void testPerColumnCodesAreRanksOfTheValues() {
+		//given
+		ColumnStore shared = columnStore(DictionaryMode.SHARED);
+		ColumnStore perColumn = columnStore(DictionaryMode.PER_COLUMN);
+
+		//when
+		//then
+		for (int relation = 0; relation < 2; relation++) {
+			EncodedColumn[] sharedColumns = shared.getRelation(relation).getColumns();
+			EncodedColumn[] perColumnColumns = perColumn.getRelation(relation).getColumns();
+			for (int column = 0; column < sharedColumns.length; column++) {
+				String[] sharedValues = decodeShared(shared, shared.distinctSharedCodes(sharedColumns[column]));
+				Arrays.sort(sharedValues);
+				assertArrayEquals(sharedValues, decodeRanks(perColumn.distinctSharedCodes(perColumnColumns[column])));
+				assertArrayEquals(decodeShared(shared, shared.sharedCodes(sharedColumns[column])), decodeRanks(perColumn.sharedCodes(perColumnColumns[column])));
+			}
+		}
+		// Comparing the columns added no value to the shared dictionary
+		assertEquals(0, perColumn.getSharedDictionary().size());
+	}
+}
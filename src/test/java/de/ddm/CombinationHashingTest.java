@@ -0,0 +1,48 @@
+package de.ddm;
+
+import de.ddm.structures.CombinationHashing;
+import de.ddm.structures.Dictionary;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CombinationHashingTest {
+
+	@Test
+	public void testDistinctCombinations() {
+		//given
+		int[][] columns = {
+				{1, 2, 1, 2, Dictionary.NULL},
+				{2, 1, 2, 1, 3}};
+
+		//when
+		LongOpenHashSet hashes = CombinationHashing.distinctHashes(columns);
+
+		//then
+		// (1, 2) and (2, 1) are different combinations, and the row with NULL is ignored
+		assertEquals(2, hashes.size());
+	}
+
+	@Test
+	public void testInclusionOfCombinations() {
+		//given
+		LongOpenHashSet referenced = CombinationHashing.distinctHashes(new int[][]{
+				{1, 2, 3},
+				{4, 5, 6}});
+
+		//when
+		boolean included = CombinationHashing.isIncluded(new int[][]{
+				{3, 1, Dictionary.NULL},
+				{6, 4, 7}}, referenced);
+		boolean swapped = CombinationHashing.isIncluded(new int[][]{
+				{1, 2},
+				{5, 4}}, referenced);
+
+		//then
+		assertTrue(included);
+		assertFalse(swapped);
+	}
+}
@@ -0,0 +1,64 @@
+package de.ddm;
+
+import akka.util.ByteString;
+import de.ddm.serialization.CompressionCodec;
+import de.ddm.serialization.CompressionType;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompressionCodecTest {
+
+	private static byte[] roundTrip(CompressionCodec codec, byte[] bytes, int offset, int length) {
+		byte[] compressed = codec.compress(bytes, offset, length).toArray();
+		byte[] target = new byte[length + 8];
+		codec.decompress(compressed, 0, compressed.length, target, 4, length);
+		return Arrays.copyOfRange(target, 4, 4 + length);
+	}
+
+	private static byte[] repetitive() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			text.append("row ").append(i % 37).append(";value;").append(i % 11).append('\n');
+		return text.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] random() {
+		byte[] bytes = new byte[100000];
+		new Random(42).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static void testRoundTrips(CompressionType type) {
+		//given
+		CompressionCodec codec = type.createCodec(6);
+
+		for (byte[] bytes : new byte[][]{new byte[0], {7}, {1, 2, 3}, repetitive(), random()}) {
+			//when
+			byte[] whole = roundTrip(codec, bytes, 0, bytes.length);
+			byte[] range = roundTrip(codec, bytes, bytes.length / 3, bytes.length / 2);
+
+			//then
+			assertArrayEquals(type + " of " + bytes.length + " bytes", bytes, whole);
+			assertArrayEquals(type + " of a range", Arrays.copyOfRange(bytes, bytes.length / 3, bytes.length / 3 + bytes.length / 2), range);
+		}
+
+		ByteString compressed = codec.compress(repetitive(), 0, repetitive().length);
+		assertTrue(type + " compresses repetitive data", compressed.size() < repetitive().length / 2);
+	}
+
+	@Test
+	public void testLzRoundTrips() {
+		testRoundTrips(CompressionType.LZ);
+	}
+
+	@Test
+	public void testDeflateRoundTrips() {
+		testRoundTrips(CompressionType.DEFLATE);
+	}
+}
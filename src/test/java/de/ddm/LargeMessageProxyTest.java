@@ -0,0 +1,149 @@
+package de.ddm;
+
+import akka.actor.testkit.typed.javadsl.TestKitJunitResource;
+import akka.actor.Address;
+import akka.actor.testkit.typed.javadsl.TestProbe;
+import akka.actor.typed.ActorRef;
+import de.ddm.actors.Worker;
+import de.ddm.actors.patterns.LargeMessageProxy;
+import de.ddm.metrics.LoadBalancer;
+import de.ddm.metrics.NodeLoad;
+import de.ddm.singletons.SystemConfigurationSingleton;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LargeMessageProxyTest {
+
+	@ClassRule
+	public static final TestKitJunitResource testKit = new TestKitJunitResource(SystemConfigurationSingleton.get().toAkkaTestConfig());
+
+	private static final int NUMBER_OF_CHUNKS = 40;
+
+	private static byte[] data() {
+		byte[] data = new byte[NUMBER_OF_CHUNKS * LargeMessageProxy.MAX_MESSAGE_SIZE - 1000];
+		new Random(4711).nextBytes(data);
+		return data;
+	}
+
+	private static void expectChunks(TestProbe<LargeMessageProxy.Message> receiverProxy, int numberOfChunks) {
+		for (int i = 0; i < numberOfChunks; i++)
+			receiverProxy.expectMessageClass(LargeMessageProxy.BytesMessage.class);
+		receiverProxy.expectNoMessage(Duration.ofMillis(200));
+	}
+
+	@Test
+	public void testSlidingWindowRefillsOnAcks() {
+		//given
+		final TestProbe<LargeMessageProxy.Message> receiverProxy = testKit.createTestProbe();
+		final ActorRef<LargeMessageProxy.Message> senderProxy = testKit.spawn(LargeMessageProxy.create(null));
+		senderProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(receiverProxy.getRef(), data()), receiverProxy.getRef()));
+
+		LargeMessageProxy.ConnectMessage connect = receiverProxy.expectMessageClass(LargeMessageProxy.ConnectMessage.class);
+		final int windowSize = connect.getWindowSize();
+		final int key = connect.getSenderTransmissionKey();
+
+		//when
+		senderProxy.tell(new LargeMessageProxy.ConnectAckMessage(key, 0));
+
+		//then
+		// The sender emits a full window and then waits for acknowledgements
+		expectChunks(receiverProxy, windowSize);
+
+		// A cumulative ack frees exactly the acknowledged part of the window
+		senderProxy.tell(new LargeMessageProxy.BytesAckMessage(key, 0, windowSize / 2));
+		expectChunks(receiverProxy, windowSize / 2);
+
+		// Stale and duplicate acks free nothing
+		senderProxy.tell(new LargeMessageProxy.BytesAckMessage(key, 0, windowSize / 2));
+		senderProxy.tell(new LargeMessageProxy.BytesAckMessage(key, 0, 1));
+		receiverProxy.expectNoMessage(Duration.ofMillis(200));
+
+		senderProxy.tell(new LargeMessageProxy.BytesAckMessage(key, 0, NUMBER_OF_CHUNKS - windowSize));
+		expectChunks(receiverProxy, NUMBER_OF_CHUNKS - windowSize - windowSize / 2);
+	}
+
+	@Test
+	public void testTransferThroughReceiverProxy() {
+		//given
+		final TestProbe<LargeMessageProxy.LargeMessage> receiver = testKit.createTestProbe();
+		final ActorRef<LargeMessageProxy.Message> senderProxy = testKit.spawn(LargeMessageProxy.create(null));
+		final ActorRef<LargeMessageProxy.Message> receiverProxy = testKit.spawn(LargeMessageProxy.create(receiver.getRef()));
+		final byte[] data = data();
+
+		//when
+		senderProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(senderProxy, data), receiverProxy));
+
+		//then
+		Worker.DataMessageWithLargeMessageProxy result = receiver.expectMessageClass(Worker.DataMessageWithLargeMessageProxy.class, Duration.ofSeconds(10));
+		assertArrayEquals(data, result.getData());
+		assertEquals(senderProxy, result.getMasterLargeMessageProxy());
+	}
+
+	@Test
+	public void testReceiverSpillsByTheSendersDecision() {
+		//given
+		final TestProbe<LargeMessageProxy.Message> relay = testKit.createTestProbe();
+		final TestProbe<LargeMessageProxy.LargeMessage> receiver = testKit.createTestProbe();
+		final ActorRef<LargeMessageProxy.Message> senderProxy = testKit.spawn(LargeMessageProxy.create(null));
+		final ActorRef<LargeMessageProxy.Message> receiverProxy = testKit.spawn(LargeMessageProxy.create(receiver.getRef()));
+		final byte[] data = data();
+		senderProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(senderProxy, data), relay.getRef()));
+		LargeMessageProxy.ConnectMessage connect = relay.expectMessageClass(LargeMessageProxy.ConnectMessage.class);
+
+		//when
+		// The receiver does not spill by its own threshold, so only the announced decision makes it map the payload
+		receiverProxy.tell(new LargeMessageProxy.ConnectMessage(connect.getSenderTransmissionKey(), connect.getSenderProxy(), connect.getLargeMessageSize(),
+				connect.getSerializerId(), connect.getManifest(), connect.getWindowSize(), connect.getChunkSize(), connect.getCompression(),
+				connect.isCompressedPerChunk(), connect.getOriginalSize(), true, connect.getReceiver()));
+		for (int i = 0; i < NUMBER_OF_CHUNKS; i++)
+			receiverProxy.tell(relay.expectMessageClass(LargeMessageProxy.BytesMessage.class, Duration.ofSeconds(10)));
+
+		//then
+		Worker.DataMessageWithLargeMessageProxy result = receiver.expectMessageClass(Worker.DataMessageWithLargeMessageProxy.class, Duration.ofSeconds(10));
+		assertArrayEquals(data, result.getData());
+	}
+
+	@Test
+	public void testPendingBytesHoldBackTheReceiversNode() {
+		//given
+		final TestProbe<LargeMessageProxy.Message> receiverProxy = testKit.createTestProbe();
+		final ActorRef<LargeMessageProxy.Message> senderProxy = testKit.spawn(LargeMessageProxy.create(null));
+		final Address address = receiverProxy.getRef().path().address();
+		final byte[] data = data();
+		final LoadBalancer loadBalancer = new LoadBalancer(true, 0.1, data.length / 2);
+		final NodeLoad idleLoad = new NodeLoad(0.1, 0.9, System.currentTimeMillis());
+		// Transfers of the other tests may still be pending to the same local address, but they never add bytes
+		final long pendingBytesBefore = LargeMessageProxy.pendingBytesTo(address);
+
+		//when
+		senderProxy.tell(new LargeMessageProxy.SendMessage(new Worker.DataMessageWithLargeMessageProxy(receiverProxy.getRef(), data), receiverProxy.getRef()));
+		LargeMessageProxy.ConnectMessage connect = receiverProxy.expectMessageClass(LargeMessageProxy.ConnectMessage.class);
+		final long pendingBytes = LargeMessageProxy.pendingBytesTo(address);
+
+		//then
+		// The payload counts as pending from the moment the proxy accepts it, so the node is held back although it reports no load
+		assertTrue(pendingBytes - pendingBytesBefore >= data.length);
+		assertNotNull(loadBalancer.overloadOf(idleLoad, pendingBytes));
+		assertNull(loadBalancer.overloadOf(idleLoad, 0));
+
+		// The acknowledgements release the bytes again
+		senderProxy.tell(new LargeMessageProxy.ConnectAckMessage(connect.getSenderTransmissionKey(), 0));
+		for (int i = 1; i <= NUMBER_OF_CHUNKS; i++) {
+			receiverProxy.expectMessageClass(LargeMessageProxy.BytesMessage.class);
+			senderProxy.tell(new LargeMessageProxy.BytesAckMessage(connect.getSenderTransmissionKey(), 0, i));
+		}
+		receiverProxy.awaitAssert(() -> {
+			assertTrue(LargeMessageProxy.pendingBytesTo(address) <= pendingBytesBefore);
+			return null;
+		});
+	}
+}
@@ -0,0 +1,112 @@
+package de.ddm;
+
+import de.ddm.configuration.InputConfiguration;
+import de.ddm.io.MappedCsvReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MappedCsvReaderTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(String content) throws IOException {
+		File file = this.folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private List<String[]> readAll(File file, InputConfiguration inputConfiguration, int windowSize) throws IOException {
+		List<String[]> records = new ArrayList<>();
+		try (MappedCsvReader reader = new MappedCsvReader(file, inputConfiguration, 0, Long.MAX_VALUE, windowSize)) {
+			String[] record;
+			while ((record = reader.readNext()) != null)
+				records.add(record);
+		}
+		return records;
+	}
+
+	@Test
+	public void testQuotesEscapesAndNulls() throws IOException {
+		//given
+		File file = this.write("A;B;C\r\n1;\"x;y\";\n;\"\";\"say \"\"hi\"\"\"\n\"a \\\"b\\\"\";plain;ä\n\"multi\nline\";2;3");
+
+		//when
+		List<String[]> records = this.readAll(file, new InputConfiguration(), MappedCsvReader.DEFAULT_WINDOW_SIZE);
+
+		//then
+		assertEquals(5, records.size());
+		assertArrayEquals(new String[]{"A", "B", "C"}, records.get(0));
+		assertArrayEquals(new String[]{"1", "x;y", null}, records.get(1));
+		assertArrayEquals(new String[]{null, "", "say \"hi\""}, records.get(2));
+		assertArrayEquals(new String[]{"a \"b\"", "plain", "ä"}, records.get(3));
+		assertArrayEquals(new String[]{"multi\nline", "2", "3"}, records.get(4));
+	}
+
+	@Test
+	public void testStrictQuotes() throws IOException {
+		//given
+		InputConfiguration inputConfiguration = new InputConfiguration();
+		inputConfiguration.setValueStrictQuotes(true);
+		File file = this.write("\"a\" ;x\"b\"y;c\n");
+
+		//when
+		List<String[]> records = this.readAll(file, inputConfiguration, MappedCsvReader.DEFAULT_WINDOW_SIZE);
+
+		//then
+		assertEquals(1, records.size());
+		assertArrayEquals(new String[]{"a", "b", null}, records.get(0));
+	}
+
+	@Test
+	public void testRecordsAcrossMappingWindows() throws IOException {
+		//given
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 1000; i++)
+			content.append(i).append(";\"value ").append(i).append("\"\n");
+		File file = this.write(content.toString());
+
+		//when
+		List<String[]> records = this.readAll(file, new InputConfiguration(), 64);
+
+		//then
+		assertEquals(1000, records.size());
+		for (int i = 0; i < 1000; i++)
+			assertArrayEquals(new String[]{String.valueOf(i), "value " + i}, records.get(i));
+	}
+
+	@Test
+	public void testByteRanges() throws IOException {
+		//given
+		File file = this.write("a;1\nb;2\nc;3\n");
+
+		//when
+		List<String[]> first;
+		List<String[]> second;
+		try (MappedCsvReader reader = new MappedCsvReader(file, new InputConfiguration(), 0, 5, 1024)) {
+			first = reader.readBatch(10);
+		}
+		try (MappedCsvReader reader = new MappedCsvReader(file, new InputConfiguration(), 8, Long.MAX_VALUE, 1024)) {
+			second = reader.readBatch(10);
+			assertNull(reader.readNext());
+		}
+
+		//then
+		assertEquals(2, first.size());
+		assertArrayEquals(new String[]{"b", "2"}, first.get(1));
+		assertEquals(1, second.size());
+		assertArrayEquals(new String[]{"c", "3"}, second.get(0));
+	}
+}
@@ -0,0 +1,80 @@
+package de.ddm;
+
+import de.ddm.configuration.InputConfiguration;
+import de.ddm.io.CsvBatch;
+import de.ddm.io.CsvRange;
+import de.ddm.io.MappedCsvReader;
+import de.ddm.io.ParallelCsvReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelCsvReaderTest {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(String content) throws IOException {
+		File file = this.folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private List<String[]> readAll(File file, InputConfiguration inputConfiguration) throws IOException {
+		List<String[]> records = new ArrayList<>();
+		try (MappedCsvReader reader = new MappedCsvReader(file, inputConfiguration, 0, Long.MAX_VALUE, MappedCsvReader.DEFAULT_WINDOW_SIZE)) {
+			String[] record;
+			while ((record = reader.readNext()) != null)
+				records.add(record);
+		}
+		return records;
+	}
+
+	@Test
+	public void testSplitsOutsideOfQuotedLineBreaks() throws IOException {
+		//given
+		StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 500; i++)
+			content.append(i).append(";\"line\n").append(i).append("\n\";\"a \"\"quote\"\"\"\n");
+		File file = this.write(content.toString());
+		InputConfiguration inputConfiguration = new InputConfiguration();
+		inputConfiguration.setFileHasHeader(false);
+		ParallelCsvReader reader = new ParallelCsvReader(file, inputConfiguration, Runnable::run);
+
+		//when
+		List<CsvRange> ranges = reader.split(16, 1);
+		ConcurrentLinkedQueue<CsvBatch> batches = new ConcurrentLinkedQueue<>();
+		reader.read(ranges, 7, batches::add).join();
+
+		//then
+		assertTrue(ranges.size() > 1);
+		for (int i = 1; i < ranges.size(); i++)
+			assertEquals(ranges.get(i - 1).getEnd(), ranges.get(i).getStart());
+		assertEquals(file.length(), ranges.get(ranges.size() - 1).getEnd());
+
+		List<CsvBatch> sortedBatches = new ArrayList<>(batches);
+		sortedBatches.sort(Comparator.comparingInt(CsvBatch::getRangeIndex).thenComparingInt(CsvBatch::getBatchIndex));
+		List<String[]> records = new ArrayList<>();
+		for (CsvBatch batch : sortedBatches)
+			records.addAll(batch.getRecords());
+
+		List<String[]> expected = this.readAll(file, inputConfiguration);
+		assertEquals(500, expected.size());
+		assertEquals(expected.size(), records.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertArrayEquals(expected.get(i), records.get(i));
+	}
+}
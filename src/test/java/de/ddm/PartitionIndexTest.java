@@ -0,0 +1,53 @@
+package de.ddm;
+
+import de.ddm.structures.PartitionIndex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class PartitionIndexTest {
+
+	private static boolean isSubset(int[] dependent, int[] referenced) {
+		for (int value : dependent)
+			if (Arrays.binarySearch(referenced, value) < 0)
+				return false;
+		return true;
+	}
+
+	@Test
+	public void testMergeMatchesNaiveSubsetCheck() {
+		//given
+		Random random = new Random(42);
+		int numberOfColumns = 12;
+		int[] columnIds = {0, 2, 3, 5, 6, 7, 8, 10, 11};
+		int[][] values = new int[columnIds.length][];
+		for (int i = 0; i < columnIds.length; i++)
+			values[i] = random.ints(random.nextInt(20), 0, 30).distinct().sorted().toArray();
+		values[1] = Arrays.copyOf(values[0], values[0].length / 2); // A guaranteed inclusion
+		values[2] = new int[0]; // Empty columns are included in every column
+
+		//when
+		BitSet[] candidates = PartitionIndex.validate(columnIds, values, numberOfColumns);
+
+		//then
+		for (int dependent = 0; dependent < columnIds.length; dependent++) {
+			BitSet expected = new BitSet(numberOfColumns);
+			expected.set(0, numberOfColumns);
+			expected.clear(columnIds[dependent]);
+			for (int referenced = 0; referenced < columnIds.length; referenced++)
+				if (!isSubset(values[dependent], values[referenced]))
+					expected.clear(columnIds[referenced]);
+			// Columns without values in the partition contain no values of a non-empty column either
+			if (values[dependent].length > 0)
+				for (int column = 0; column < numberOfColumns; column++)
+					if (Arrays.binarySearch(columnIds, column) < 0)
+						expected.clear(column);
+
+			assertEquals("Column " + columnIds[dependent], expected, candidates[dependent]);
+		}
+	}
+}
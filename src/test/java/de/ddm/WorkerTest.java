@@ -3,21 +3,27 @@ package de.ddm;
 import akka.actor.testkit.typed.javadsl.TestKitJunitResource;
 import akka.actor.testkit.typed.javadsl.TestProbe;
 import akka.actor.typed.ActorRef;
+import de.ddm.actors.Master;
 import de.ddm.actors.Worker;
 import de.ddm.actors.patterns.LargeMessageProxy;
 import de.ddm.actors.patterns.Reaper;
 import de.ddm.singletons.SystemConfigurationSingleton;
-import org.junit.Before;
+import de.ddm.structures.ColumnReplicas;
+import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
 public class WorkerTest {
 
 	@ClassRule
 	public static final TestKitJunitResource testKit = new TestKitJunitResource(SystemConfigurationSingleton.get().toAkkaTestConfig());
 
-	@Before
-	public void setUp() {
+	// The reaper has a fixed name, so it can be spawned only once per actor system and not before every test
+	@BeforeClass
+	public static void setUp() {
 		testKit.spawn(Reaper.create(), Reaper.DEFAULT_NAME);
 		SystemConfigurationSingleton.get().setPerformanceTestMessageSizeInMB(1);
 	}
@@ -37,4 +43,68 @@ public class WorkerTest {
 		probe.expectNoMessage();
 	}
 
+	private static int[][] valuesOf(int[] columnIds, int[][] values) {
+		// Like the master, a task carries only the values of the columns that the worker does not hold for sure
+		int[][] columnValues = new int[columnIds.length][];
+		for (int i = 0; i < columnIds.length; i++)
+			columnValues[i] = values[columnIds[i]];
+		return columnValues;
+	}
+
+	@Test
+	public void testHandleTaskMessagesWithConfirmedColumns() {
+		//given
+		final TestProbe<Master.Message> probe = testKit.createTestProbe();
+		final ActorRef<Worker.Message> worker = testKit.spawn(Worker.create());
+		final ColumnReplicas<ActorRef<Worker.Message>> replicas = new ColumnReplicas<>();
+		final int[][] values = {{1, 2}, {1, 2, 3}, {4}};
+
+		//when
+		final int[] firstColumns = replicas.missing(worker, new int[]{0}, new int[]{1});
+		worker.tell(new Worker.TaskMessage(probe.getRef(), 1, 0, new int[]{1}, firstColumns, valuesOf(firstColumns, values)));
+		final Master.ResultMessage firstResult = probe.expectMessageClass(Master.ResultMessage.class);
+		probe.expectMessageClass(Master.WorkRequestMessage.class);
+		replicas.confirm(worker, firstColumns);
+
+		final int[] secondColumns = replicas.missing(worker, new int[]{0}, new int[]{1, 2});
+		worker.tell(new Worker.TaskMessage(probe.getRef(), 2, 0, new int[]{1, 2}, secondColumns, valuesOf(secondColumns, values)));
+		final Master.ResultMessage secondResult = probe.expectMessageClass(Master.ResultMessage.class);
+		probe.expectMessageClass(Master.WorkRequestMessage.class);
+
+		//then
+		assertArrayEquals(new int[]{0, 1}, firstColumns);
+		assertArrayEquals(new int[]{1}, firstResult.getReferencedColumns());
+		// The second task carries only the new column and is validated against the columns that the first one left
+		assertArrayEquals(new int[]{2}, secondColumns);
+		assertEquals(2, secondResult.getTaskId());
+		assertArrayEquals(new int[]{1}, secondResult.getReferencedColumns());
+	}
+
+	@Test
+	public void testHandleNaryTaskMessagesWithConfirmedColumns() {
+		//given
+		final TestProbe<Master.Message> probe = testKit.createTestProbe();
+		final ActorRef<Worker.Message> worker = testKit.spawn(Worker.create());
+		final ColumnReplicas<ActorRef<Worker.Message>> replicas = new ColumnReplicas<>();
+		final int[][] rows = {{1, 2}, {3, 4}, {1, 2, 5}, {3, 4, 6}, {9, 9, 9}};
+
+		//when
+		final int[] firstColumns = replicas.missing(worker, new int[]{0, 1}, new int[]{2, 3});
+		worker.tell(new Worker.NaryTaskMessage(probe.getRef(), 1, new int[][]{{0, 1}}, new int[][]{{2, 3}}, firstColumns, valuesOf(firstColumns, rows)));
+		final Master.NaryResultMessage firstResult = probe.expectMessageClass(Master.NaryResultMessage.class);
+		probe.expectMessageClass(Master.WorkRequestMessage.class);
+		replicas.confirm(worker, firstColumns);
+
+		final int[] secondColumns = replicas.missing(worker, new int[]{0, 1}, new int[]{2, 4}, new int[]{0, 1}, new int[]{2, 3});
+		worker.tell(new Worker.NaryTaskMessage(probe.getRef(), 2, new int[][]{{0, 1}, {0, 1}}, new int[][]{{2, 4}, {2, 3}}, secondColumns, valuesOf(secondColumns, rows)));
+		final Master.NaryResultMessage secondResult = probe.expectMessageClass(Master.NaryResultMessage.class);
+		probe.expectMessageClass(Master.WorkRequestMessage.class);
+
+		//then
+		assertArrayEquals(new int[]{0}, firstResult.getValidCandidates());
+		// The second task carries only the new column and is validated against the columns that the first one left
+		assertArrayEquals(new int[]{4}, secondColumns);
+		assertEquals(2, secondResult.getTaskId());
+		assertArrayEquals(new int[]{1}, secondResult.getValidCandidates());
+	}
 }